@@ -0,0 +1,35 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An item with an explicit id and a content value, so diffs see the changes the benchmarks make.
+ * It is never bound.
+ */
+class BenchmarkItem extends Item {
+
+    final int content;
+
+    BenchmarkItem(long id) {
+        this(id, 0);
+    }
+
+    BenchmarkItem(long id, int content) {
+        super(id);
+        this.content = content;
+    }
+
+    @Override
+    public int getLayout() {
+        return 0;
+    }
+
+    @Override
+    public void bind(@NonNull GroupieViewHolder viewHolder, int position) {
+    }
+
+    @Override
+    public boolean hasSameContentAs(@NonNull Item other) {
+        return other instanceof BenchmarkItem && ((BenchmarkItem) other).content == content;
+    }
+}
@@ -0,0 +1,67 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Stands in for the adapter at the top of a benchmarked tree, so that notifications are
+ * propagated all the way up without needing a RecyclerView.
+ */
+class CountingGroupDataObserver implements GroupDataObserver {
+
+    int notifications;
+
+    @Override
+    public void onChanged(@NonNull Group group) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemInserted(@NonNull Group group, int position) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position, Object payload) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemRemoved(@NonNull Group group, int position) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount, Object payload) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemRangeInserted(@NonNull Group group, int positionStart, int itemCount) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemRangeRemoved(@NonNull Group group, int positionStart, int itemCount) {
+        notifications++;
+    }
+
+    @Override
+    public void onItemMoved(@NonNull Group group, int fromPosition, int toPosition) {
+        notifications++;
+    }
+
+    @Override
+    public void onDataSetInvalidated() {
+        notifications++;
+    }
+}
@@ -0,0 +1,56 @@
+package com.xwray.groupie;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffing two trees of {@code size} items which differ by {@link GroupTrees#EDITS} changes,
+ * removals and insertions, as {@link GroupAdapter#update} does.
+ * <p>
+ * Every item lookup the callback makes walks the tree, so each diff can take seconds at the
+ * larger sizes; each call is timed on its own rather than averaged over a fixed period.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiffCallbackBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"1", "2", "4"})
+    int depth;
+
+    private List<Section> oldGroups;
+    private List<Section> newGroups;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkItem> items = GroupTrees.items(size);
+        oldGroups = Collections.singletonList(GroupTrees.tree(items, depth));
+        newGroups = Collections.singletonList(GroupTrees.tree(GroupTrees.edit(items), depth));
+    }
+
+    @Benchmark
+    public DiffUtil.DiffResult calculateDiff() {
+        return DiffUtil.calculateDiff(new DiffCallback(oldGroups, newGroups), false);
+    }
+}
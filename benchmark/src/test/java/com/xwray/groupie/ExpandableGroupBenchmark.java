@@ -0,0 +1,64 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expanding and collapsing a group whose children are a tree of {@code size} items, with the
+ * group itself nested {@code depth} levels deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ExpandableGroupBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"1", "2", "4"})
+    int depth;
+
+    private ExpandableGroup expandableGroup;
+
+    static class Header extends BenchmarkItem implements ExpandableItem {
+        Header() {
+            super(Long.MIN_VALUE);
+        }
+
+        @Override
+        public void setExpandableGroup(@NonNull ExpandableGroup onToggleListener) {
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        expandableGroup = new ExpandableGroup(new Header());
+        expandableGroup.add(GroupTrees.tree(GroupTrees.items(size), depth));
+        GroupTrees.nest(expandableGroup, depth).registerGroupDataObserver(new CountingGroupDataObserver());
+    }
+
+    /**
+     * Alternates between expanding and collapsing, so the result is the average of the two.
+     */
+    @Benchmark
+    public boolean onToggleExpanded() {
+        expandableGroup.onToggleExpanded();
+        return expandableGroup.isExpanded();
+    }
+}
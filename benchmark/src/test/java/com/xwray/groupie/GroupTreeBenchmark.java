@@ -0,0 +1,79 @@
+package com.xwray.groupie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position lookups on a tree of sections, which the adapter does for every bind and every
+ * notification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class GroupTreeBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"1", "2", "4"})
+    int depth;
+
+    private List<BenchmarkItem> items;
+    private Section root;
+    private Collection<Section> groups;
+    private int[] positions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        items = GroupTrees.items(size);
+        root = GroupTrees.tree(items, depth);
+        root.registerGroupDataObserver(new CountingGroupDataObserver());
+        groups = Collections.singletonList(root);
+
+        // Look up positions in a fixed random order so that no lookup is favoured
+        Random random = new Random(42);
+        positions = new int[1024];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = random.nextInt(size);
+        }
+    }
+
+    private int nextPosition() {
+        next = (next + 1) & (positions.length - 1);
+        return positions[next];
+    }
+
+    @Benchmark
+    public Item getItem() {
+        return GroupUtils.getItem(groups, nextPosition());
+    }
+
+    @Benchmark
+    public int getItemCount() {
+        return root.getItemCount();
+    }
+
+    @Benchmark
+    public int getPosition() {
+        return root.getPosition(items.get(nextPosition()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the group trees and edits used by the benchmarks.
+ */
+final class GroupTrees {
+
+    /**
+     * How many child sections each section splits into above the leaves.
+     */
+    static final int FANOUT = 10;
+
+    /**
+     * The number of items changed, removed and inserted by {@link #edit(List)}. It is fixed rather
+     * than a fraction of the size so that diffing cost is dominated by the list size.
+     */
+    static final int EDITS = 100;
+
+    private GroupTrees() {
+    }
+
+    static List<BenchmarkItem> items(int count) {
+        List<BenchmarkItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new BenchmarkItem(i));
+        }
+        return items;
+    }
+
+    /**
+     * Sections nested {@code depth} levels deep holding the items at the leaves. A depth of 1 is a
+     * single flat section.
+     */
+    @NonNull
+    static Section tree(@NonNull List<? extends Item> items, int depth) {
+        if (depth <= 1) {
+            return new Section(items);
+        }
+        Section section = new Section();
+        int chunk = Math.max(1, (items.size() + FANOUT - 1) / FANOUT);
+        for (int start = 0; start < items.size(); start += chunk) {
+            int end = Math.min(items.size(), start + chunk);
+            section.add(tree(items.subList(start, end), depth - 1));
+        }
+        return section;
+    }
+
+    /**
+     * Wraps a group in {@code depth - 1} parent sections, each with a header and another item
+     * before it, so notifications from the group travel through every level and are offset at
+     * each one.
+     */
+    @NonNull
+    static Group nest(@NonNull Group group, int depth) {
+        Group nested = group;
+        long id = -1;
+        for (int level = 1; level < depth; level++) {
+            Section parent = new Section(new BenchmarkItem(id--));
+            parent.add(new BenchmarkItem(id--));
+            parent.add(nested);
+            nested = parent;
+        }
+        return nested;
+    }
+
+    /**
+     * A copy of the items with {@link #EDITS} contents changed, removed and inserted, spread
+     * evenly over the list.
+     */
+    @NonNull
+    static List<BenchmarkItem> edit(@NonNull List<BenchmarkItem> items) {
+        int step = Math.max(1, items.size() / EDITS);
+        List<BenchmarkItem> edited = new ArrayList<>(items.size());
+        long nextId = items.size();
+        for (int i = 0; i < items.size(); i++) {
+            BenchmarkItem item = items.get(i);
+            if (i % step != 0) {
+                edited.add(item);
+                continue;
+            }
+            switch ((i / step) % 3) {
+                case 0:
+                    edited.add(new BenchmarkItem(item.getId(), item.content + 1));
+                    break;
+                case 1:
+                    // removed
+                    break;
+                default:
+                    edited.add(item);
+                    edited.add(new BenchmarkItem(nextId++));
+            }
+        }
+        return edited;
+    }
+}
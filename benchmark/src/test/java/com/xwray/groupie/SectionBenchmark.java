@@ -0,0 +1,88 @@
+package com.xwray.groupie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Edits to a section nested {@code depth} levels deep, including the cost of notifying every
+ * parent on the way up. Each call edits the whole section, so calls are timed one at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SectionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"1", "2", "4"})
+    int depth;
+
+    private List<BenchmarkItem> items;
+    private List<BenchmarkItem> removed;
+    private List<BenchmarkItem> edited;
+
+    @Setup
+    public void setUp() {
+        items = GroupTrees.items(size);
+        edited = GroupTrees.edit(items);
+        removed = new ArrayList<>();
+        int step = Math.max(1, size / GroupTrees.EDITS);
+        for (int i = 0; i < size; i += step) {
+            removed.add(items.get(i));
+        }
+    }
+
+    /**
+     * The removeAll and update benchmarks change the section, so each call gets a fresh one.
+     */
+    @State(Scope.Thread)
+    public static class FilledSection {
+        Section section;
+
+        @Setup(Level.Invocation)
+        public void fill(SectionBenchmark benchmark) {
+            section = new Section(benchmark.items);
+            GroupTrees.nest(section, benchmark.depth).registerGroupDataObserver(new CountingGroupDataObserver());
+        }
+    }
+
+    @Benchmark
+    public Section add() {
+        Section section = new Section();
+        GroupTrees.nest(section, depth).registerGroupDataObserver(new CountingGroupDataObserver());
+        for (int i = 0; i < items.size(); i++) {
+            section.add(items.get(i));
+        }
+        return section;
+    }
+
+    @Benchmark
+    public Section removeAll(FilledSection filled) {
+        filled.section.removeAll(removed);
+        return filled.section;
+    }
+
+    @Benchmark
+    public Section update(FilledSection filled) {
+        filled.section.update(edited);
+        return filled.section;
+    }
+}
@@ -6,6 +6,7 @@ import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
 import android.view.View;
 
+import com.xwray.groupie.ChangeMask;
 import com.xwray.groupie.Item;
 import com.xwray.groupie.OnItemClickListener;
 import com.xwray.groupie.OnItemLongClickListener;
@@ -77,14 +78,49 @@ public abstract class BindableItem<T extends ViewDataBinding> extends Item<Group
     /**
      * Perform any actions required to set up the view for display.
      *
-     * If you don't specify how to handle payloads in your implementation, they'll be ignored and
-     * the adapter will do a full rebind.
+     * If the payloads are all {@link ChangeMask}s, from {@link #getChangedFields(Item)}, each
+     * changed field is bound with {@link #bindField(ViewDataBinding, int, long)}. Otherwise, if you don't
+     * specify how to handle payloads in your implementation, they'll be ignored and the adapter
+     * will do a full rebind.
      *
      * @param viewBinding The ViewDataBinding to bind
      * @param position The adapter position
      * @param payloads A list of payloads (may be empty)
      */
     public void bind(@NonNull T viewBinding, int position, @NonNull List<Object> payloads) {
-        bind(viewBinding, position);
+        long changedFields = ChangeMask.merge(payloads);
+        if (changedFields == ChangeMask.ALL_FIELDS) {
+            bind(viewBinding, position);
+            return;
+        }
+        // Check every field can be bound on its own before binding any, to never bind twice
+        for (long fields = changedFields; fields != 0L; fields &= fields - 1) {
+            if (!canBindField(Long.lowestOneBit(fields))) {
+                bind(viewBinding, position);
+                return;
+            }
+        }
+        for (long fields = changedFields; fields != 0L; fields &= fields - 1) {
+            bindField(viewBinding, position, Long.lowestOneBit(fields));
+        }
+    }
+
+    /**
+     * @param field One field bit from {@link #getChangedFields(Item)}
+     * @return Whether {@link #bindField(ViewDataBinding, int, long)} can update that field on its own. If
+     * not, a change to it does a full rebind.
+     */
+    protected boolean canBindField(long field) {
+        return false;
+    }
+
+    /**
+     * Update only the views showing one field which changed.
+     *
+     * @param viewBinding The ViewDataBinding to bind
+     * @param position The adapter position
+     * @param field One field bit from {@link #getChangedFields(Item)}
+     */
+    protected void bindField(@NonNull T viewBinding, int position, long field) {
     }
 }
@@ -0,0 +1,41 @@
+package com.xwray.groupie.ktx
+
+import androidx.annotation.MainThread
+import androidx.lifecycle.LifecycleOwner
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.RecyclerView
+import com.xwray.groupie.Group
+import com.xwray.groupie.GroupAdapter
+import com.xwray.groupie.GroupieViewHolder
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.withContext
+
+/**
+ * Update this adapter with each list of groups from a flow. Each list is diffed on
+ * [Dispatchers.Default] and the result is applied on the main thread.
+ *
+ * The flow is only collected while [recyclerView] is attached to its window and [lifecycleOwner]
+ * is at least started, and is collected again from the start when both become true. It is
+ * conflated, so lists emitted while a diff is running replace each other rather than queueing,
+ * and only the latest is diffed next.
+ *
+ * Don't add or remove groups in this adapter any other way while collecting.
+ *
+ * @return A job to cancel to stop collecting. Collecting stops anyway when the lifecycle is
+ * destroyed.
+ */
+@MainThread
+fun GroupAdapter<out GroupieViewHolder>.collectFrom(
+    groups: Flow<List<Group>>,
+    recyclerView: RecyclerView,
+    lifecycleOwner: LifecycleOwner,
+    detectMoves: Boolean = true
+): Job = WhileShownCollector(groups, recyclerView, lifecycleOwner) { newGroups ->
+    val diffCallback = createDiffCallback(newGroups)
+    val diffResult = withContext(Dispatchers.Default) {
+        DiffUtil.calculateDiff(diffCallback, detectMoves)
+    }
+    update(newGroups, diffResult)
+}.start()
@@ -0,0 +1,39 @@
+package com.xwray.groupie.ktx
+
+import androidx.annotation.MainThread
+import androidx.lifecycle.LifecycleOwner
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.RecyclerView
+import com.xwray.groupie.Group
+import com.xwray.groupie.Section
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.withContext
+
+/**
+ * Update the body of this section with each list of groups from a flow. Each list is diffed on
+ * [Dispatchers.Default] and the result is applied on the main thread.
+ *
+ * The flow is only collected while [recyclerView], which shows this section, is attached to its
+ * window and [lifecycleOwner] is at least started. It is conflated in the same way as for
+ * [GroupAdapter.collectFrom][collectFrom].
+ *
+ * Don't add or remove body groups in this section any other way while collecting.
+ *
+ * @return A job to cancel to stop collecting. Collecting stops anyway when the lifecycle is
+ * destroyed.
+ */
+@MainThread
+fun Section.collectFrom(
+    groups: Flow<List<Group>>,
+    recyclerView: RecyclerView,
+    lifecycleOwner: LifecycleOwner,
+    detectMoves: Boolean = true
+): Job = WhileShownCollector(groups, recyclerView, lifecycleOwner) { newGroups ->
+    val diffCallback = createDiffCallback(newGroups)
+    val diffResult = withContext(Dispatchers.Default) {
+        DiffUtil.calculateDiff(diffCallback, detectMoves)
+    }
+    update(newGroups, diffResult)
+}.start()
@@ -0,0 +1,75 @@
+package com.xwray.groupie.ktx
+
+import android.view.View
+import androidx.annotation.MainThread
+import androidx.core.view.ViewCompat
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.lifecycleScope
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.launch
+
+/**
+ * Collects a flow only while a view is attached to its window and a lifecycle is at least
+ * started, collecting it again from the start whenever both become true.
+ *
+ * The flow is conflated, so while [apply] is busy with one value only the latest of any newer
+ * values is kept, and a fast flow never queues up work.
+ */
+internal class WhileShownCollector<T>(
+    private val flow: Flow<T>,
+    private val view: View,
+    private val lifecycleOwner: LifecycleOwner,
+    private val apply: suspend (T) -> Unit
+) : LifecycleEventObserver, View.OnAttachStateChangeListener {
+
+    private val job = SupervisorJob(lifecycleOwner.lifecycleScope.coroutineContext[Job])
+    private val scope = CoroutineScope(job + Dispatchers.Main.immediate)
+    private var collectJob: Job? = null
+
+    @MainThread
+    fun start(): Job {
+        view.addOnAttachStateChangeListener(this)
+        lifecycleOwner.lifecycle.addObserver(this)
+        scope.launch {
+            try {
+                awaitCancellation()
+            } finally {
+                view.removeOnAttachStateChangeListener(this@WhileShownCollector)
+                lifecycleOwner.lifecycle.removeObserver(this@WhileShownCollector)
+            }
+        }
+        update()
+        return job
+    }
+
+    override fun onStateChanged(source: LifecycleOwner, event: Lifecycle.Event) = update()
+
+    override fun onViewAttachedToWindow(v: View) = update()
+
+    override fun onViewDetachedFromWindow(v: View) = update()
+
+    private fun update() {
+        val shouldCollect = lifecycleOwner.lifecycle.currentState.isAtLeast(Lifecycle.State.STARTED)
+                && ViewCompat.isAttachedToWindow(view)
+        if (shouldCollect) {
+            if (collectJob == null) {
+                collectJob = scope.launch {
+                    flow.conflate().collect { apply(it) }
+                }
+            }
+        } else {
+            // Cancelling also drops any diff in flight, which is never applied
+            collectJob?.cancel()
+            collectJob = null
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.xwray.groupie;
 
+import android.content.Context;
+
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -18,6 +20,33 @@ class AsyncDiffUtil {
          */
         @MainThread
         void onDispatchAsyncResult(@NonNull Collection<? extends Group> newGroups);
+
+        /**
+         * Called on the main thread when a diff finishes, whether or not its result is dispatched
+         */
+        @MainThread
+        void onDiffCalculated(int oldItemCount, int newItemCount, long durationNanos);
+
+        /**
+         * Called on the main thread before dispatching a result, to check whether the groups
+         * changed structurally while diffing, so that the result no longer applies
+         */
+        @MainThread
+        boolean isAsyncResultStale();
+
+        /**
+         * Called on the main thread instead of dispatching a stale result, to apply the update
+         * another way
+         */
+        @MainThread
+        void onAsyncResultStale(@NonNull Collection<? extends Group> newGroups, boolean detectMoves,
+                                @Nullable OnAsyncUpdateListener onAsyncUpdateListener);
+
+        /**
+         * Called on the main thread after DiffUtil dispatches the result
+         */
+        @MainThread
+        void onAsyncResultDispatched(@NonNull GroupSnapshot newItems);
     }
 
     private final Callback asyncDiffUtilCallback;
@@ -42,13 +71,25 @@ class AsyncDiffUtil {
         return maxScheduledGeneration;
     }
 
+    /**
+     * Make sure the results of any diffs which are still running are never dispatched
+     */
+    void discardRunningDiffs() {
+        maxScheduledGeneration++;
+    }
+
+    /**
+     * @param precomputeContext If not null, {@link Item#precompute(Context)} is called with it on
+     *                          the background thread for new and changed items
+     */
     void calculateDiff(@NonNull Collection<? extends Group> newGroups,
-                       @NonNull DiffUtil.Callback diffUtilCallback,
+                       @NonNull DiffCallback diffUtilCallback,
                        @Nullable OnAsyncUpdateListener onAsyncUpdateListener,
-                       boolean detectMoves) {
+                       boolean detectMoves,
+                       @Nullable Context precomputeContext) {
         groups = newGroups;
         // incrementing generation means any currently-running diffs are discarded when they finish
         final int runGeneration = ++maxScheduledGeneration;
-        new DiffTask(this, diffUtilCallback, runGeneration, detectMoves, onAsyncUpdateListener).execute();
+        new DiffTask(this, diffUtilCallback, runGeneration, detectMoves, onAsyncUpdateListener, precomputeContext).execute();
     }
 }
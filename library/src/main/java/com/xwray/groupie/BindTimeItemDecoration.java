@@ -0,0 +1,196 @@
+package com.xwray.groupie;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A debug overlay which draws, over each visible row, how long its last bind took, how many times
+ * its item has been bound, its view type and item class, and whether the last bind only applied
+ * payloads. The label is green for binds well within the frame budget, amber for binds which take
+ * up a large part of it and red for binds which exceed it on their own.
+ * <p>
+ * It gets its timings by being the adapter's {@link TimingListener}, so install it on both:
+ * <pre>
+ * BindTimeItemDecoration overlay = new BindTimeItemDecoration(context);
+ * adapter.setTimingListener(overlay);
+ * recyclerView.addItemDecoration(overlay);
+ * </pre>
+ * Timing sampling should be left off so that every bind is shown. To keep collecting
+ * {@link TimingMetrics} as well, pass them to {@link #BindTimeItemDecoration(Context, TimingListener)}.
+ */
+public class BindTimeItemDecoration extends RecyclerView.ItemDecoration implements TimingListener {
+
+    private static final int COLOR_WITHIN_BUDGET = 0xCC2E7D32;
+    private static final int COLOR_NEAR_BUDGET = 0xCCEF8F00;
+    private static final int COLOR_OVER_BUDGET = 0xCCC62828;
+
+    /**
+     * Binds taking more than this fraction of the frame budget are shown as near the budget.
+     */
+    private static final float NEAR_BUDGET_FRACTION = 0.25f;
+
+    /**
+     * What is shown over one view holder. The labels are only rebuilt when drawn after a bind
+     * changed them, so binding doesn't format anything and drawing doesn't allocate.
+     */
+    static final class Row {
+        @Nullable private Item item;
+        private int bindCount;
+        private long lastBindNanos;
+        private boolean isPayloadBind;
+        private boolean isStale = true;
+        @NonNull final StringBuilder costLabel = new StringBuilder();
+        @NonNull String typeLabel = "";
+        float width;
+
+        void onBound(@NonNull Item item, boolean isPayloadBind, long durationNanos) {
+            if (this.item != item) {
+                this.item = item;
+                bindCount = 0;
+                typeLabel = "type " + item.getViewType() + " " + item.getClass().getSimpleName();
+            }
+            bindCount++;
+            lastBindNanos = durationNanos;
+            this.isPayloadBind = isPayloadBind;
+            isStale = true;
+        }
+
+        long getLastBindNanos() {
+            return lastBindNanos;
+        }
+
+        /**
+         * @return Whether the labels changed, and so need measuring again
+         */
+        boolean updateLabels() {
+            if (!isStale) {
+                return false;
+            }
+            isStale = false;
+            costLabel.setLength(0);
+            // Milliseconds to 2 decimal places, rounded
+            long hundredths = (lastBindNanos + 5000) / 10000;
+            costLabel.append(hundredths / 100).append('.');
+            long fraction = hundredths % 100;
+            if (fraction < 10) {
+                costLabel.append('0');
+            }
+            costLabel.append(fraction).append(" ms  x").append(bindCount);
+            if (isPayloadBind) {
+                costLabel.append("  payload");
+            }
+            return true;
+        }
+    }
+
+    @Nullable private final TimingListener delegate;
+    private final Map<GroupieViewHolder, Row> rows = new WeakHashMap<>();
+    private final Paint backgroundPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float padding;
+    private final float lineHeight;
+    private long frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(16);
+
+    public BindTimeItemDecoration(@NonNull Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param delegate A listener which also receives every timing, e.g. {@link TimingMetrics}
+     */
+    public BindTimeItemDecoration(@NonNull Context context, @Nullable TimingListener delegate) {
+        this.delegate = delegate;
+        float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 10, context.getResources().getDisplayMetrics());
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(textSize);
+        backgroundPaint.setStyle(Paint.Style.FILL);
+        padding = textSize / 3;
+        lineHeight = textSize * 1.2f;
+    }
+
+    /**
+     * Set the frame budget binds are coloured against. Defaults to 16ms, one 60fps frame.
+     */
+    public void setFrameBudgetMillis(float millis) {
+        frameBudgetNanos = (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Override
+    public void onViewHolderCreated(@NonNull Item item, int viewType, long durationNanos) {
+        if (delegate != null) {
+            delegate.onViewHolderCreated(item, viewType, durationNanos);
+        }
+    }
+
+    @Override
+    public void onViewHolderBound(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, boolean isPayloadBind, long durationNanos) {
+        Row row = rows.get(viewHolder);
+        if (row == null) {
+            row = new Row();
+            rows.put(viewHolder, row);
+        }
+        row.onBound(item, isPayloadBind, durationNanos);
+
+        if (delegate != null) {
+            delegate.onViewHolderBound(viewHolder, item, isPayloadBind, durationNanos);
+        }
+    }
+
+    @Override
+    public void onViewHolderRecycled(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, long durationNanos) {
+        if (delegate != null) {
+            delegate.onViewHolderRecycled(viewHolder, item, durationNanos);
+        }
+    }
+
+    @Override
+    public void onAsyncDiffCalculated(int oldItemCount, int newItemCount, long durationNanos) {
+        if (delegate != null) {
+            delegate.onAsyncDiffCalculated(oldItemCount, newItemCount, durationNanos);
+        }
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            RecyclerView.ViewHolder viewHolder = parent.getChildViewHolder(child);
+            Row row = viewHolder instanceof GroupieViewHolder ? rows.get(viewHolder) : null;
+            if (row == null) continue;
+
+            if (row.updateLabels()) {
+                row.width = Math.max(textPaint.measureText(row.costLabel, 0, row.costLabel.length()),
+                        textPaint.measureText(row.typeLabel)) + 2 * padding;
+            }
+            float left = child.getLeft() + child.getTranslationX();
+            float top = child.getTop() + child.getTranslationY();
+            float height = 2 * lineHeight + 2 * padding;
+
+            backgroundPaint.setColor(colorFor(row.getLastBindNanos()));
+            c.drawRect(left, top, left + row.width, top + height, backgroundPaint);
+            c.drawText(row.costLabel, 0, row.costLabel.length(), left + padding, top + padding + lineHeight - textPaint.descent(), textPaint);
+            c.drawText(row.typeLabel, left + padding, top + padding + 2 * lineHeight - textPaint.descent(), textPaint);
+        }
+    }
+
+    private int colorFor(long bindNanos) {
+        if (bindNanos >= frameBudgetNanos) {
+            return COLOR_OVER_BUDGET;
+        } else if (bindNanos >= frameBudgetNanos * NEAR_BUDGET_FRACTION) {
+            return COLOR_NEAR_BUDGET;
+        }
+        return COLOR_WITHIN_BUDGET;
+    }
+}
@@ -0,0 +1,137 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+
+import java.util.Arrays;
+
+/**
+ * A {@link GridLayoutManager.SpanSizeLookup} for a {@link GroupAdapter} which remembers the span
+ * size of each position in an int array, and turns on GridLayoutManager's span index and span
+ * group index caches.
+ * <p>
+ * The adapter keeps it up to date: inserts and removes shift the remembered sizes, changes and
+ * moves forget only the positions involved, and a data set change or a new span count forgets
+ * everything.
+ * <p>
+ * Get one from {@link GroupAdapter#getCachingSpanSizeLookup()}.
+ */
+public class CachingSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+    /**
+     * Span sizes are at least 1, so 0 marks a position which needs to be looked up again.
+     */
+    private static final int UNKNOWN = 0;
+
+    private final GroupAdapter adapter;
+    private int[] spanSizes = new int[0];
+    /**
+     * The number of leading positions tracked by {@link #spanSizes}. Positions past this haven't
+     * been looked up since the last invalidation.
+     */
+    private int trackedCount;
+
+    CachingSpanSizeLookup(@NonNull GroupAdapter adapter) {
+        this.adapter = adapter;
+        setSpanIndexCacheEnabled(true);
+        setSpanGroupIndexCacheEnabled(true);
+    }
+
+    @Override
+    public int getSpanSize(int position) {
+        if (position >= 0 && position < trackedCount) {
+            int spanSize = spanSizes[position];
+            if (spanSize != UNKNOWN) {
+                return spanSize;
+            }
+        }
+
+        int spanCount = adapter.getSpanCount();
+        if (position < 0 || position >= adapter.getItemCount()) {
+            // GridLayoutManager can ask about positions which have just been removed, e.g. while
+            // working out span indices for a pending removal
+            return spanCount;
+        }
+        int spanSize = adapter.getItem(position).getSpanSize(spanCount, position);
+        if (spanSize > 0) {
+            track(position);
+            spanSizes[position] = spanSize;
+        }
+        return spanSize;
+    }
+
+    /**
+     * Forget every remembered span size, as well as GridLayoutManager's span index caches.
+     * The adapter calls this itself whenever the span count or whole data set changes.
+     */
+    public void invalidateSpanSizeCache() {
+        trackedCount = 0;
+        invalidateSpanIndexCache();
+        invalidateSpanGroupIndexCache();
+    }
+
+    void onDataSetChanged() {
+        invalidateSpanSizeCache();
+    }
+
+    void onItemRangeChanged(int positionStart, int itemCount) {
+        int end = Math.min(positionStart + itemCount, trackedCount);
+        if (positionStart < end) {
+            Arrays.fill(spanSizes, positionStart, end, UNKNOWN);
+        }
+    }
+
+    void onItemRangeInserted(int positionStart, int itemCount) {
+        if (positionStart >= trackedCount || itemCount <= 0) {
+            return;
+        }
+        ensureCapacity(trackedCount + itemCount);
+        System.arraycopy(spanSizes, positionStart, spanSizes, positionStart + itemCount, trackedCount - positionStart);
+        Arrays.fill(spanSizes, positionStart, positionStart + itemCount, UNKNOWN);
+        trackedCount += itemCount;
+    }
+
+    void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (positionStart >= trackedCount || itemCount <= 0) {
+            return;
+        }
+        int end = Math.min(positionStart + itemCount, trackedCount);
+        System.arraycopy(spanSizes, end, spanSizes, positionStart, trackedCount - end);
+        trackedCount -= end - positionStart;
+    }
+
+    void onItemMoved(int fromPosition, int toPosition) {
+        if (fromPosition >= trackedCount || toPosition >= trackedCount) {
+            // One end was never looked up, so forget everything from the earlier end onwards
+            trackedCount = Math.min(trackedCount, Math.min(fromPosition, toPosition));
+            return;
+        }
+        int spanSize = spanSizes[fromPosition];
+        if (fromPosition < toPosition) {
+            System.arraycopy(spanSizes, fromPosition + 1, spanSizes, fromPosition, toPosition - fromPosition);
+        } else {
+            System.arraycopy(spanSizes, toPosition, spanSizes, toPosition + 1, fromPosition - toPosition);
+        }
+        spanSizes[toPosition] = spanSize;
+    }
+
+    /**
+     * Extend the tracked range to include the given position, marking any newly tracked
+     * positions as unknown.
+     */
+    private void track(int position) {
+        if (position < trackedCount) {
+            return;
+        }
+        ensureCapacity(position + 1);
+        Arrays.fill(spanSizes, trackedCount, position + 1, UNKNOWN);
+        trackedCount = position + 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= spanSizes.length) {
+            return;
+        }
+        spanSizes = Arrays.copyOf(spanSizes, Math.max(capacity, spanSizes.length * 2));
+    }
+}
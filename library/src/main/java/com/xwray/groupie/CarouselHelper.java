@@ -0,0 +1,166 @@
+package com.xwray.groupie;
+
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+import androidx.annotation.VisibleForTesting;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares work between horizontally scrolling RecyclerViews nested in the items of a vertical one.
+ * <p>
+ * All carousels use one {@link RecyclerView.RecycledViewPool}, so a card scrolled out of one
+ * carousel can be reused by the next rather than being inflated again. Groupie's view types are
+ * layout ids, so cards are only reused for cards of the same layout. Each carousel's
+ * {@link LinearLayoutManager} is set to prefetch as many cards as fit across the carousels, once
+ * one has been laid out, so a carousel scrolling onto the screen is filled during idle time.
+ * <p>
+ * Each carousel's scroll position is saved by its item's id when it is recycled, and restored
+ * when an item with that id is bound again, so scrolling down and back up keeps every carousel
+ * where it was. Only the most recently saved states are kept.
+ * <p>
+ * Use one helper for all the carousels in a list, calling {@link #bind(RecyclerView, Item)} from
+ * the carousel item's bind, after setting the carousel's adapter, and
+ * {@link #unbind(RecyclerView, Item)} from its unbind. Carousels must use a LinearLayoutManager.
+ */
+public class CarouselHelper {
+
+    private static final int DEFAULT_MAX_SAVED_STATES = 32;
+
+    private final RecyclerView.RecycledViewPool viewPool = new RecyclerView.RecycledViewPool();
+    @Px
+    private final int cardWidth;
+    /**
+     * The width of the last carousel to be laid out, or 0 before any has been. Carousels in one
+     * list are normally all the same width.
+     */
+    @Px
+    private int visibleWidth;
+    private final LinkedHashMap<Long, Parcelable> savedStates;
+    /**
+     * The id of the item each carousel is showing, so that rebinding the same item keeps its
+     * scroll position
+     */
+    private final Map<RecyclerView, Long> boundIds = new WeakHashMap<>();
+
+    /**
+     * @param cardWidth The width of the cards, including any decoration offsets, for working out
+     *                  how many to prefetch
+     */
+    public CarouselHelper(@Px int cardWidth) {
+        this(cardWidth, DEFAULT_MAX_SAVED_STATES);
+    }
+
+    /**
+     * @param cardWidth      The width of the cards, including any decoration offsets, for working
+     *                       out how many to prefetch
+     * @param maxSavedStates How many carousels' scroll positions to remember. The least recently
+     *                       saved are forgotten first.
+     */
+    public CarouselHelper(@Px int cardWidth, final int maxSavedStates) {
+        if (cardWidth <= 0) {
+            throw new IllegalArgumentException("Card width must be positive, but was " + cardWidth);
+        }
+        this.cardWidth = cardWidth;
+        savedStates = new LinkedHashMap<Long, Parcelable>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Parcelable> eldest) {
+                return size() > maxSavedStates;
+            }
+        };
+    }
+
+    /**
+     * The pool all carousels share. Set it on other nested RecyclerViews showing the same cards to
+     * share them as well.
+     */
+    @NonNull
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return viewPool;
+    }
+
+    /**
+     * Set up a carousel for an item being bound, restoring its scroll position if one was saved.
+     *
+     * @param carousel The nested RecyclerView, with its adapter already set
+     * @param item     The item the carousel is part of
+     */
+    public void bind(@NonNull RecyclerView carousel, @NonNull Item item) {
+        LinearLayoutManager layoutManager = getLayoutManager(carousel);
+        if (carousel.getRecycledViewPool() != viewPool) {
+            carousel.setRecycledViewPool(viewPool);
+            // Return cards to the shared pool when the carousel is recycled
+            layoutManager.setRecycleChildrenOnDetach(true);
+        }
+        // A carousel scrolling onto the screen usually hasn't been laid out yet
+        if (carousel.getWidth() > 0) {
+            visibleWidth = carousel.getWidth();
+        }
+        if (visibleWidth > 0) {
+            layoutManager.setInitialPrefetchItemCount(getPrefetchCount(visibleWidth));
+        }
+
+        Long boundId = boundIds.get(carousel);
+        if (boundId != null && boundId == item.getId()) {
+            return;
+        }
+        boundIds.put(carousel, item.getId());
+        Parcelable state = savedStates.remove(item.getId());
+        if (state != null) {
+            layoutManager.onRestoreInstanceState(state);
+        } else {
+            // The view may last have shown another carousel
+            layoutManager.scrollToPosition(0);
+        }
+    }
+
+    /**
+     * Save a carousel's scroll position as its item is unbound.
+     *
+     * @param carousel The nested RecyclerView
+     * @param item     The item the carousel is part of
+     */
+    public void unbind(@NonNull RecyclerView carousel, @NonNull Item item) {
+        boundIds.remove(carousel);
+        if (carousel.getWidth() > 0) {
+            visibleWidth = carousel.getWidth();
+        }
+        Parcelable state = getLayoutManager(carousel).onSaveInstanceState();
+        if (state != null) {
+            savedStates.put(item.getId(), state);
+        }
+    }
+
+    /**
+     * Forget all saved scroll positions, e.g. when the list is replaced with different content.
+     */
+    public void clearSavedStates() {
+        savedStates.clear();
+    }
+
+    @VisibleForTesting
+    int getSavedStateCount() {
+        return savedStates.size();
+    }
+
+    @VisibleForTesting
+    int getPrefetchCount(@Px int visibleWidth) {
+        // Enough to fill the width, plus one for a partly visible card at the other edge
+        return (visibleWidth + cardWidth - 1) / cardWidth + 1;
+    }
+
+    @NonNull
+    private static LinearLayoutManager getLayoutManager(@NonNull RecyclerView carousel) {
+        RecyclerView.LayoutManager layoutManager = carousel.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) {
+            throw new IllegalStateException("A carousel needs a LinearLayoutManager, but has " + layoutManager);
+        }
+        return (LinearLayoutManager) layoutManager;
+    }
+}
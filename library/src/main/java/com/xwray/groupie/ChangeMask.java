@@ -0,0 +1,92 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * A change payload recording which fields of an Item changed, as one bit per field.
+ * <p>
+ * Items declare their fields by overriding {@link Item#getChangedFields(Item)}, and the adapter
+ * sends a ChangeMask as the payload whenever any of them differ. RecyclerView may deliver several
+ * payloads for one bind; {@link #merge(List)} combines them so that each changed field is bound
+ * once.
+ */
+public final class ChangeMask {
+
+    /**
+     * Merged fields for a bind which must update everything.
+     */
+    public static final long ALL_FIELDS = ~0L;
+
+    private final long fields;
+
+    private ChangeMask(long fields) {
+        this.fields = fields;
+    }
+
+    @NonNull
+    public static ChangeMask of(long fields) {
+        return new ChangeMask(fields);
+    }
+
+    public long getFields() {
+        return fields;
+    }
+
+    public boolean contains(long field) {
+        return (fields & field) != 0;
+    }
+
+    /**
+     * OR together the fields of all the payloads for one bind.
+     *
+     * @return The changed fields, or {@link #ALL_FIELDS} if there are no payloads or any of them
+     * isn't a ChangeMask, since then the item needs a full rebind
+     */
+    public static long merge(@NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            return ALL_FIELDS;
+        }
+        long fields = 0L;
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            if (!(payload instanceof ChangeMask)) {
+                return ALL_FIELDS;
+            }
+            fields |= ((ChangeMask) payload).fields;
+        }
+        return fields;
+    }
+
+    /**
+     * The payload for an item being replaced by a new version of itself: a ChangeMask if the item
+     * declares fields and any of them changed, otherwise its own {@link Item#getChangePayload(Item)}.
+     */
+    @Nullable
+    static Object getChangePayload(@NonNull Item oldItem, @NonNull Item newItem) {
+        long changedFields = oldItem.getChangedFields(newItem);
+        if (changedFields != 0L) {
+            return new ChangeMask(changedFields);
+        }
+        return oldItem.getChangePayload(newItem);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return fields == ((ChangeMask) o).fields;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (fields ^ (fields >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeMask{" + Long.toBinaryString(fields) + "}";
+    }
+}
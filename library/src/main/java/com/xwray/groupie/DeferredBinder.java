@@ -0,0 +1,202 @@
+package com.xwray.groupie;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link Item#bindDeferred(GroupieViewHolder, int)} for a {@link GroupAdapter} on the frames
+ * after the initial binds, spending at most a fixed budget of each frame and starting with the
+ * view holders closest to the visible rows.
+ */
+class DeferredBinder {
+
+    static final int DEFAULT_FRAME_BUDGET_MILLIS = 4;
+
+    private final List<GroupieViewHolder> pending = new ArrayList<>();
+    @Nullable private RecyclerView recyclerView;
+    private long frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FRAME_BUDGET_MILLIS);
+    /**
+     * The view the next frame was posted to, which may no longer be the attached RecyclerView
+     */
+    @Nullable private View scheduledOn;
+    private int firstVisiblePosition;
+    private int lastVisiblePosition;
+
+    private final Comparator<GroupieViewHolder> byDistanceFromVisibleRows = new Comparator<GroupieViewHolder>() {
+        @Override
+        public int compare(GroupieViewHolder first, GroupieViewHolder second) {
+            return distanceFromVisibleRows(first) - distanceFromVisibleRows(second);
+        }
+    };
+
+    private final Runnable runFrame = new Runnable() {
+        @Override
+        public void run() {
+            scheduledOn = null;
+            runPendingBinds(System.nanoTime() + frameBudgetNanos);
+        }
+    };
+
+    void setFrameBudgetMillis(int millis) {
+        frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Deferred binds only run while attached. An adapter may be attached to more than one
+     * RecyclerView; the most recent one is used to schedule frames.
+     */
+    void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Pending deferred binds are dropped, as the view holders they are for are recycled along with
+     * the RecyclerView's views.
+     */
+    void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (this.recyclerView != recyclerView) {
+            return;
+        }
+        if (scheduledOn != null) {
+            removeCallbacks(scheduledOn, runFrame);
+            scheduledOn = null;
+        }
+        this.recyclerView = null;
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).deferredBindPending = false;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Queue a deferred bind for the item currently bound to the view holder.
+     */
+    void add(@NonNull GroupieViewHolder viewHolder, int position) {
+        if (recyclerView == null) {
+            // Nothing to schedule frames on, so there is no frame to protect either
+            bindDeferred(viewHolder, position);
+            return;
+        }
+        if (!viewHolder.deferredBindPending) {
+            viewHolder.deferredBindPending = true;
+            pending.add(viewHolder);
+        }
+        schedule();
+    }
+
+    /**
+     * Drop any queued deferred bind for a view holder which is being recycled.
+     */
+    void remove(@NonNull GroupieViewHolder viewHolder) {
+        // Cleared lazily from the queue when the next frame runs
+        viewHolder.deferredBindPending = false;
+    }
+
+    private void schedule() {
+        if (scheduledOn != null || recyclerView == null) {
+            return;
+        }
+        scheduledOn = recyclerView;
+        postOnAnimation(recyclerView, runFrame);
+    }
+
+    /**
+     * Overridden in tests, which have no frames to post to
+     */
+    void postOnAnimation(@NonNull View view, @NonNull Runnable frame) {
+        ViewCompat.postOnAnimation(view, frame);
+    }
+
+    void removeCallbacks(@NonNull View view, @NonNull Runnable frame) {
+        view.removeCallbacks(frame);
+    }
+
+    private void runPendingBinds(long deadlineNanos) {
+        if (pending.isEmpty()) {
+            // A frame which was already queued when the pending binds were dropped
+            return;
+        }
+        updateVisibleRange();
+        Collections.sort(pending, byDistanceFromVisibleRows);
+
+        int count = 0;
+        // Always make progress, even if a single bind is over budget
+        do {
+            GroupieViewHolder viewHolder = pending.get(count++);
+            if (viewHolder.deferredBindPending) {
+                bindDeferred(viewHolder, getAdapterPosition(viewHolder));
+            }
+        } while (count < pending.size() && System.nanoTime() < deadlineNanos);
+
+        pending.subList(0, count).clear();
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void bindDeferred(@NonNull GroupieViewHolder viewHolder, int position) {
+        viewHolder.deferredBindPending = false;
+        Item item = viewHolder.getItem();
+        if (position == RecyclerView.NO_POSITION || item == null) {
+            return;
+        }
+        //noinspection unchecked
+        item.bindDeferred(viewHolder, position);
+    }
+
+    /**
+     * Binds are only run while attached, so ask the RecyclerView, which knows the positions of the
+     * view holders it has bound whether or not they are laid out.
+     */
+    private int getAdapterPosition(@NonNull GroupieViewHolder viewHolder) {
+        if (recyclerView == null) {
+            return RecyclerView.NO_POSITION;
+        }
+        return recyclerView.getChildAdapterPosition(viewHolder.itemView);
+    }
+
+    private void updateVisibleRange() {
+        firstVisiblePosition = Integer.MAX_VALUE;
+        lastVisiblePosition = Integer.MIN_VALUE;
+        if (recyclerView == null) {
+            return;
+        }
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int position = recyclerView.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION) continue;
+            firstVisiblePosition = Math.min(firstVisiblePosition, position);
+            lastVisiblePosition = Math.max(lastVisiblePosition, position);
+        }
+    }
+
+    private int distanceFromVisibleRows(@NonNull GroupieViewHolder viewHolder) {
+        int position = getAdapterPosition(viewHolder);
+        if (position == RecyclerView.NO_POSITION) {
+            return Integer.MAX_VALUE;
+        }
+        if (firstVisiblePosition > lastVisiblePosition) {
+            return position;
+        }
+        if (position < firstVisiblePosition) {
+            return firstVisiblePosition - position;
+        }
+        if (position > lastVisiblePosition) {
+            return position - lastVisiblePosition;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of Items which is cheap to add to at either end, e.g. a chat history which loads older
+ * messages at the top as well as new ones at the bottom.
+ * <p>
+ * {@link Section#addAll(int, Collection)} at position 0 shifts every existing child and counts
+ * the items before the insert position. A DequeSection keeps its items in a growable circular
+ * array, so adding k items at the start or end takes amortised O(k), and since every child is a
+ * single item, positions are just indices and never need counting. Each item's position is
+ * indexed, so passing on a change notification from one is O(1) too. Adding or removing in the
+ * middle shifts whichever side of the position is shorter.
+ */
+public class DequeSection extends NestedGroup {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ItemRingBuffer items = new ItemRingBuffer(INITIAL_CAPACITY);
+
+    public DequeSection() {
+    }
+
+    public DequeSection(@NonNull Collection<? extends Group> items) {
+        addAll(items);
+    }
+
+    @Override
+    public void add(@NonNull Group group) {
+        add(items.size(), group);
+    }
+
+    @Override
+    public void add(int position, @NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "DequeSection");
+        checkInsertPosition(position);
+        super.add(position, group);
+        items.addAll(position, Collections.singletonList(item));
+        notifyItemInserted(position);
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        addAll(items.size(), groups);
+    }
+
+    /**
+     * Insert items at the given position, in amortised O(k) at either end.
+     */
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Item> added = GroupUtils.asItems(groups, "DequeSection");
+        checkInsertPosition(position);
+        super.addAll(position, groups);
+        items.addAll(position, added);
+        notifyItemRangeInserted(position, added.size());
+    }
+
+    @Override
+    public void remove(@NonNull Group group) {
+        int index = items.indexOf(group);
+        if (index < 0) {
+            return;
+        }
+        super.remove(group);
+        items.remove(index);
+        notifyItemRemoved(index);
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> replacements = GroupUtils.asItems(groups, "DequeSection");
+        super.replaceAll(groups);
+        items.clear();
+        items.addAll(0, replacements);
+        notifyDataSetInvalidated();
+    }
+
+    /**
+     * Remove every item.
+     */
+    public void clear() {
+        int itemCount = items.size();
+        if (itemCount == 0) {
+            return;
+        }
+        for (int i = 0; i < itemCount; i++) {
+            items.get(i).unregisterGroupDataObserver(this);
+        }
+        items.clear();
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    /**
+     * @return A copy of the items, in order
+     */
+    @NonNull
+    public List<Item> getItems() {
+        return items.toList();
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        return items.get(position);
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return items.get(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return items.size();
+    }
+
+    @Override
+    public int getPosition(@NonNull Group group) {
+        return items.indexOf(group);
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        return items.indexOf(item);
+    }
+
+    @Override
+    protected int getItemCountBeforeGroup(@NonNull Group group) {
+        return items.indexOf(group);
+    }
+
+    private void checkInsertPosition(int position) {
+        if (position < 0 || position > items.size()) {
+            throw new IndexOutOfBoundsException("Can't insert at " + position + " when there are "
+                    + items.size() + " items");
+        }
+    }
+}
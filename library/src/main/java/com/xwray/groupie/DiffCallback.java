@@ -1,52 +1,106 @@
 package com.xwray.groupie;
 
+import android.content.Context;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.recyclerview.widget.DiffUtil;
 
+import java.util.BitSet;
 import java.util.Collection;
 
 class DiffCallback extends DiffUtil.Callback {
-    private final int oldBodyItemCount;
-    private final int newBodyItemCount;
-    private final Collection<? extends Group> oldGroups;
-    private final Collection<? extends Group> newGroups;
+    private final GroupSnapshot oldItems;
+    private final GroupSnapshot newItems;
+    @Nullable
+    private BitSet changedNewPositions;
 
     DiffCallback(Collection<? extends Group> oldGroups, Collection<? extends Group> newGroups) {
-        this.oldBodyItemCount = GroupUtils.getItemCount(oldGroups);
-        this.newBodyItemCount = GroupUtils.getItemCount(newGroups);
-        this.oldGroups = oldGroups;
-        this.newGroups = newGroups;
+        this(GroupSnapshot.of(oldGroups), GroupSnapshot.of(newGroups));
+    }
+
+    /**
+     * Diff snapshots, which are safe to read on a background thread
+     */
+    DiffCallback(@NonNull GroupSnapshot oldItems, @NonNull GroupSnapshot newItems) {
+        this.oldItems = oldItems;
+        this.newItems = newItems;
+    }
+
+    @NonNull
+    GroupSnapshot getNewItems() {
+        return newItems;
     }
 
     @Override
     public int getOldListSize() {
-        return oldBodyItemCount;
+        return oldItems.size();
     }
 
     @Override
     public int getNewListSize() {
-        return newBodyItemCount;
+        return newItems.size();
     }
 
     @Override
     public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-        Item oldItem = GroupUtils.getItem(oldGroups, oldItemPosition);
-        Item newItem = GroupUtils.getItem(newGroups, newItemPosition);
+        Item oldItem = oldItems.getItem(oldItemPosition);
+        Item newItem = newItems.getItem(newItemPosition);
         return newItem.isSameAs(oldItem);
     }
 
     @Override
     public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-        Item oldItem = GroupUtils.getItem(oldGroups, oldItemPosition);
-        Item newItem = GroupUtils.getItem(newGroups, newItemPosition);
-        return newItem.hasSameContentAs(oldItem);
+        Item oldItem = oldItems.getItem(oldItemPosition);
+        Item newItem = newItems.getItem(newItemPosition);
+        boolean isSameContent = newItem.hasSameContentAs(oldItem);
+        if (!isSameContent && changedNewPositions != null) {
+            changedNewPositions.set(newItemPosition);
+        }
+        return isSameContent;
+    }
+
+    /**
+     * Remember which new positions had their contents change while diffing, for
+     * {@link #isNewOrChanged(DiffUtil.DiffResult, int)}. Must be called before diffing.
+     */
+    void trackContentChanges() {
+        changedNewPositions = new BitSet(newItems.size());
+    }
+
+    /**
+     * @return Whether the item at the new position wasn't in the old list, or was but its
+     * contents changed. Requires {@link #trackContentChanges()}.
+     */
+    boolean isNewOrChanged(@NonNull DiffUtil.DiffResult diffResult, int newItemPosition) {
+        return diffResult.convertNewPositionToOld(newItemPosition) == DiffUtil.DiffResult.NO_POSITION
+                || (changedNewPositions != null && changedNewPositions.get(newItemPosition));
+    }
+
+    @NonNull
+    Item getNewItem(int newItemPosition) {
+        return newItems.getItem(newItemPosition);
+    }
+
+    /**
+     * Call {@link Item#precompute(Context)} for each new item which is
+     * {@link #isNewOrChanged(DiffUtil.DiffResult, int) new or changed}.
+     */
+    @WorkerThread
+    void precomputeNewOrChanged(@NonNull DiffUtil.DiffResult diffResult, @NonNull Context context) {
+        for (int newPosition = 0; newPosition < newItems.size(); newPosition++) {
+            if (isNewOrChanged(diffResult, newPosition)) {
+                newItems.getItem(newPosition).precompute(context);
+            }
+        }
     }
 
     @Nullable
     @Override
     public Object getChangePayload(int oldItemPosition, int newItemPosition) {
-        Item oldItem = GroupUtils.getItem(oldGroups, oldItemPosition);
-        Item newItem = GroupUtils.getItem(newGroups, newItemPosition);
-        return oldItem.getChangePayload(newItem);
+        Item oldItem = oldItems.getItem(oldItemPosition);
+        Item newItem = newItems.getItem(newItemPosition);
+        return ChangeMask.getChangePayload(oldItem, newItem);
     }
 }
\ No newline at end of file
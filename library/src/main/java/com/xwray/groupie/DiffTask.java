@@ -1,5 +1,6 @@
 package com.xwray.groupie;
 
+import android.content.Context;
 import android.os.AsyncTask;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -13,21 +14,32 @@ import java.util.Collection;
  * in a background thread. This task will call {@link AsyncDiffUtil.Callback#onDispatchAsyncResult(Collection)}
  * passing the new list just before dispatching the diff result to the provided
  * {@link DiffUtil.Callback} so that the new list.
- * <p>This task is executed via {@link AsyncDiffUtil#calculateDiff(Collection, DiffUtil.Callback, OnAsyncUpdateListener, boolean)}.
+ * <p>If the groups changed structurally while diffing, the result is discarded and
+ * {@link AsyncDiffUtil.Callback#onAsyncResultStale(Collection, boolean, OnAsyncUpdateListener)}
+ * is called instead, so that the update can be applied another way.
+ * <p>If given a context, it also calls {@link Item#precompute(Context)} for new and changed
+ * items while still in the background.
+ * <p>This task is executed via {@link AsyncDiffUtil#calculateDiff(Collection, DiffCallback, OnAsyncUpdateListener, boolean, Context)}.
  */
 class DiffTask extends AsyncTask<Void, Void, DiffUtil.DiffResult> {
-    @NonNull private final DiffUtil.Callback diffCallback;
+    private static final String ASYNC_TRACE_SECTION = "Groupie updateAsync";
+
+    @NonNull private final DiffCallback diffCallback;
     private final WeakReference<AsyncDiffUtil> asyncListDiffer;
     private final int runGeneration;
     private final boolean detectMoves;
     @Nullable private WeakReference<OnAsyncUpdateListener> onAsyncUpdateListener;
+    @Nullable private WeakReference<Context> precomputeContext;
     private Exception backgroundException = null;
+    private long diffDurationNanos;
+    private final boolean isAsyncTraced;
 
     DiffTask(@NonNull AsyncDiffUtil asyncDiffUtil,
-             @NonNull DiffUtil.Callback callback,
+             @NonNull DiffCallback callback,
              int runGeneration,
              boolean detectMoves,
-             @Nullable OnAsyncUpdateListener onAsyncUpdateListener) {
+             @Nullable OnAsyncUpdateListener onAsyncUpdateListener,
+             @Nullable Context precomputeContext) {
         this.diffCallback = callback;
         this.asyncListDiffer = new WeakReference<>(asyncDiffUtil);
         this.runGeneration = runGeneration;
@@ -35,30 +47,76 @@ class DiffTask extends AsyncTask<Void, Void, DiffUtil.DiffResult> {
         if (onAsyncUpdateListener != null) {
             this.onAsyncUpdateListener = new WeakReference<>(onAsyncUpdateListener);
         }
+        if (precomputeContext != null) {
+            this.precomputeContext = new WeakReference<>(precomputeContext);
+            diffCallback.trackContentChanges();
+        }
+        // Spans from the update until its result is dispatched or discarded
+        isAsyncTraced = GroupieTrace.beginAsyncSection(ASYNC_TRACE_SECTION, runGeneration);
     }
 
     @Override
     @Nullable
     protected DiffUtil.DiffResult doInBackground(Void... voids) {
+        boolean isTraced = GroupieTrace.beginSection("Groupie async diff");
         try {
-            return DiffUtil.calculateDiff(diffCallback, detectMoves);
+            long start = System.nanoTime();
+            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback, detectMoves);
+            diffDurationNanos = System.nanoTime() - start;
+            Context context = precomputeContext != null ? precomputeContext.get() : null;
+            if (context != null) {
+                precompute(diffResult, context);
+            }
+            return diffResult;
         } catch (Exception e) {
             backgroundException = e;
             return null;
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
+    }
+
+    private void precompute(@NonNull DiffUtil.DiffResult diffResult, @NonNull Context context) {
+        boolean isTraced = GroupieTrace.beginSection("Groupie precompute");
+        try {
+            diffCallback.precomputeNewOrChanged(diffResult, context);
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
         }
     }
 
     @Override
     protected void onPostExecute(@Nullable DiffUtil.DiffResult diffResult) {
-        if (backgroundException != null) {
-            throw new RuntimeException(backgroundException);
-        }
-        AsyncDiffUtil async = asyncListDiffer.get();
-        if (shouldDispatchResult(diffResult, async)) {
-            async.getAsyncDiffUtilCallback().onDispatchAsyncResult(async.getGroups());
-            diffResult.dispatchUpdatesTo(async.getAsyncDiffUtilCallback());
-            if (onAsyncUpdateListener != null && onAsyncUpdateListener.get() != null) {
-                onAsyncUpdateListener.get().onUpdateComplete();
+        try {
+            if (backgroundException != null) {
+                throw new RuntimeException(backgroundException);
+            }
+            AsyncDiffUtil async = asyncListDiffer.get();
+            if (async != null) {
+                async.getAsyncDiffUtilCallback().onDiffCalculated(
+                        diffCallback.getOldListSize(), diffCallback.getNewListSize(), diffDurationNanos);
+            }
+            if (shouldDispatchResult(diffResult, async)) {
+                AsyncDiffUtil.Callback callback = async.getAsyncDiffUtilCallback();
+                OnAsyncUpdateListener listener = onAsyncUpdateListener != null ? onAsyncUpdateListener.get() : null;
+                if (callback.isAsyncResultStale()) {
+                    callback.onAsyncResultStale(async.getGroups(), detectMoves, listener);
+                    return;
+                }
+                callback.onDispatchAsyncResult(async.getGroups());
+                diffResult.dispatchUpdatesTo(callback);
+                callback.onAsyncResultDispatched(diffCallback.getNewItems());
+                if (listener != null) {
+                    listener.onUpdateComplete();
+                }
+            }
+        } finally {
+            if (isAsyncTraced) {
+                GroupieTrace.endAsyncSection(ASYNC_TRACE_SECTION, runGeneration);
             }
         }
     }
@@ -0,0 +1,176 @@
+package com.xwray.groupie;
+
+import java.util.Arrays;
+
+/**
+ * A growable binary indexed tree of non-negative ints, used to keep running item counts so that
+ * "how many items come before child N" and "which child holds item P" are O(log n) instead of
+ * a linear scan.
+ * <p>
+ * Appending and updating a value are O(log n). Inserting or removing in the middle rebuilds the
+ * tree, which is O(n).
+ */
+final class FenwickTree {
+    private int[] values;
+    private int[] tree;
+    private int size;
+    private int total;
+
+    FenwickTree() {
+        this(8);
+    }
+
+    FenwickTree(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        values = new int[capacity];
+        tree = new int[capacity + 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The sum of all values
+     */
+    int total() {
+        return total;
+    }
+
+    int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    void set(int index, int value) {
+        add(index, value - get(index));
+    }
+
+    void add(int index, int delta) {
+        checkIndex(index);
+        if (delta == 0) return;
+        values[index] += delta;
+        total += delta;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return The sum of the first {@code count} values
+     */
+    int prefixSum(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("Wanted sum of " + count + " values but there are only " + size);
+        }
+        int sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the index whose range contains the given offset, i.e. the smallest index for which
+     * {@code prefixSum(index + 1) > offset}.
+     *
+     * @return The index, or -1 if the offset is outside of [0, total)
+     */
+    int indexOf(int offset) {
+        if (offset < 0 || offset >= total) return -1;
+        int index = 0;
+        int remaining = offset;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= size && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    void append(int value) {
+        ensureCapacity(size + 1);
+        values[size] = value;
+        size++;
+        // The new node covers (size - lowbit(size), size], the rest of which is already summed
+        int node = value;
+        int lowBit = size & -size;
+        for (int i = size - 1; i > size - lowBit; i -= i & -i) {
+            node += tree[i];
+        }
+        tree[size] = node;
+        total += value;
+    }
+
+    void insert(int index, int value) {
+        if (index == size) {
+            append(value);
+            return;
+        }
+        checkIndex(index);
+        ensureCapacity(size + 1);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        rebuild();
+    }
+
+    void remove(int index) {
+        removeRange(index, index + 1);
+    }
+
+    void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Wanted to remove [" + fromIndex + ", " + toIndex + ") but there are only " + size);
+        }
+        if (fromIndex == toIndex) return;
+        System.arraycopy(values, toIndex, values, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        rebuild();
+    }
+
+    void clear() {
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * Replace all values at once. This is O(n), cheaper than n individual appends.
+     */
+    void setAll(int[] newValues, int count) {
+        ensureCapacity(count);
+        System.arraycopy(newValues, 0, values, 0, count);
+        size = count;
+        rebuild();
+    }
+
+    private void rebuild() {
+        Arrays.fill(tree, 0, size + 1, 0);
+        total = 0;
+        for (int i = 1; i <= size; i++) {
+            tree[i] += values[i - 1];
+            total += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= values.length) return;
+        int newCapacity = Math.max(capacity, values.length * 2);
+        values = Arrays.copyOf(values, newCapacity);
+        int[] newTree = new int[newCapacity + 1];
+        System.arraycopy(tree, 0, newTree, 0, size + 1);
+        tree = newTree;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Wanted value at " + index + " but there are only " + size);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A group which shows only the items of another group which match a {@link Predicate}, e.g. to
+ * filter a list as the user types.
+ * <p>
+ * Rather than rebuilding and diffing the filtered list on each change, a FilteredGroup keeps the
+ * positions of the matching items in an int array and works out the smallest set of range inserts
+ * and removals when the predicate changes. If the new predicate only ever matches fewer items, as
+ * when a character is added to a search query, {@link #narrowPredicate(Predicate)} tests only the
+ * items which currently match; {@link #widenPredicate(Predicate)} likewise tests only the items
+ * which don't. Changes to the source group are filtered as they are notified, touching only the
+ * items they affect.
+ * <p>
+ * The source group shouldn't also be added to the adapter. Changes to its contents must be made
+ * through the source, since a FilteredGroup can't be added to or removed from directly. Each
+ * notification from the source must describe the source as it is when it is sent, as with
+ * {@link Section#add(Group)} and {@link Section#remove(Group)}. {@link Section#update(Collection)}
+ * replaces its contents before notifying its whole diff, so update a filtered Section with
+ * {@link Section#replaceAll(Collection)} instead, which refilters everything.
+ * <p>
+ * A FilteredGroup observes its source until {@link #release()} is called, so release it when it
+ * is no longer shown if the source outlives it.
+ */
+public class FilteredGroup extends NestedGroup {
+
+    public interface Predicate {
+        boolean test(@NonNull Item item);
+    }
+
+    private static final int TEST_ALL = 0;
+    private static final int TEST_MATCHES = 1;
+    private static final int TEST_NON_MATCHES = 2;
+
+    private static final int RUN_NONE = 0;
+    private static final int RUN_INSERTED = 1;
+    private static final int RUN_REMOVED = 2;
+    private static final int RUN_CHANGED = 3;
+
+    private final Group source;
+    /**
+     * The source's items, kept up to date from its notifications, so that they can be looked up by
+     * position without walking the source.
+     */
+    private final ArrayList<Item> sourceItems = new ArrayList<>();
+    private Predicate predicate;
+    /**
+     * The source positions of the matching items, in ascending order.
+     */
+    private int[] matches = new int[16];
+    private int[] scratch = new int[16];
+    private int matchCount = 0;
+
+    private int runType = RUN_NONE;
+    private int runStart;
+    private int runCount;
+    @Nullable private Object runPayload;
+    private boolean isReleased = false;
+
+    public FilteredGroup(@NonNull Group source, @NonNull Predicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+        collectItems(source, 0, source.getItemCount(), sourceItems);
+        refilter(0, sourceItems.size(), TEST_ALL, false, null);
+        source.registerGroupDataObserver(sourceObserver);
+    }
+
+    @NonNull
+    public Group getSource() {
+        return source;
+    }
+
+    /**
+     * Stop observing the source group, e.g. when this group is removed from the adapter but the
+     * source is kept. The filtered items no longer follow changes to the source afterwards.
+     */
+    public void release() {
+        if (isReleased) {
+            return;
+        }
+        isReleased = true;
+        source.unregisterGroupDataObserver(sourceObserver);
+    }
+
+    @NonNull
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Filter with a new predicate, testing every item of the source.
+     */
+    public void setPredicate(@NonNull Predicate predicate) {
+        this.predicate = predicate;
+        refilter(0, sourceItems.size(), TEST_ALL, false, null);
+    }
+
+    /**
+     * Filter with a new predicate which matches no items that the current predicate doesn't,
+     * testing only the items which currently match.
+     */
+    public void narrowPredicate(@NonNull Predicate predicate) {
+        this.predicate = predicate;
+        refilter(0, sourceItems.size(), TEST_MATCHES, false, null);
+    }
+
+    /**
+     * Filter with a new predicate which matches every item that the current predicate does,
+     * testing only the items which don't currently match.
+     */
+    public void widenPredicate(@NonNull Predicate predicate) {
+        this.predicate = predicate;
+        refilter(0, sourceItems.size(), TEST_NON_MATCHES, false, null);
+    }
+
+    @Override
+    public int getItemCount() {
+        return matchCount;
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        if (position < 0 || position >= matchCount) {
+            throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                    + matchCount + " items");
+        }
+        return sourceItems.get(matches[position]);
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return getItem(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return matchCount;
+    }
+
+    @Override
+    public int getPosition(@NonNull Group group) {
+        for (int i = 0; i < matchCount; i++) {
+            if (sourceItems.get(matches[i]) == group) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        return getPosition((Group) item);
+    }
+
+    @Override
+    public void add(@NonNull Group group) {
+        throw new UnsupportedOperationException("Add items to the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void add(int position, @NonNull Group group) {
+        throw new UnsupportedOperationException("Add items to the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("Add items to the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("Add items to the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void remove(@NonNull Group group) {
+        throw new UnsupportedOperationException("Remove items from the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("Remove items from the source group of a FilteredGroup");
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("Replace items in the source group of a FilteredGroup");
+    }
+
+    private final GroupDataObserver sourceObserver = new GroupDataObserver() {
+        @Override
+        public void onChanged(@NonNull Group group) {
+            if (group.getItemCount() != sourceItems.size()) {
+                onDataSetInvalidated();
+                return;
+            }
+            onItemRangeChanged(group, 0, sourceItems.size(), null);
+        }
+
+        @Override
+        public void onItemInserted(@NonNull Group group, int position) {
+            onItemRangeInserted(group, position, 1);
+        }
+
+        @Override
+        public void onItemChanged(@NonNull Group group, int position) {
+            onItemRangeChanged(group, position, 1, null);
+        }
+
+        @Override
+        public void onItemChanged(@NonNull Group group, int position, Object payload) {
+            onItemRangeChanged(group, position, 1, payload);
+        }
+
+        @Override
+        public void onItemRemoved(@NonNull Group group, int position) {
+            onItemRangeRemoved(group, position, 1);
+        }
+
+        @Override
+        public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount) {
+            onItemRangeChanged(group, positionStart, itemCount, null);
+        }
+
+        @Override
+        public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount, Object payload) {
+            // The items at these positions may have been replaced, as well as changed
+            List<Item> changed = new ArrayList<>(itemCount);
+            collectItems(source, positionStart, positionStart + itemCount, changed);
+            for (int i = 0; i < itemCount; i++) {
+                sourceItems.set(positionStart + i, changed.get(i));
+            }
+            refilter(positionStart, positionStart + itemCount, TEST_ALL, true, payload);
+        }
+
+        @Override
+        public void onItemRangeInserted(@NonNull Group group, int positionStart, int itemCount) {
+            List<Item> inserted = new ArrayList<>(itemCount);
+            collectItems(source, positionStart, positionStart + itemCount, inserted);
+            sourceItems.addAll(positionStart, inserted);
+            for (int i = lowerBound(positionStart); i < matchCount; i++) {
+                matches[i] += itemCount;
+            }
+            // No matches are left in the inserted range, so this only inserts
+            refilter(positionStart, positionStart + itemCount, TEST_ALL, false, null);
+        }
+
+        @Override
+        public void onItemRangeRemoved(@NonNull Group group, int positionStart, int itemCount) {
+            sourceItems.subList(positionStart, positionStart + itemCount).clear();
+            int first = lowerBound(positionStart);
+            int end = lowerBound(positionStart + itemCount);
+            System.arraycopy(matches, end, matches, first, matchCount - end);
+            matchCount -= end - first;
+            for (int i = first; i < matchCount; i++) {
+                matches[i] -= itemCount;
+            }
+            if (end > first) {
+                notifyItemRangeRemoved(first, end - first);
+            }
+        }
+
+        @Override
+        public void onItemMoved(@NonNull Group group, int fromPosition, int toPosition) {
+            sourceItems.add(toPosition, sourceItems.remove(fromPosition));
+            int from = lowerBound(fromPosition);
+            boolean isMatch = from < matchCount && matches[from] == fromPosition;
+            if (isMatch) {
+                System.arraycopy(matches, from + 1, matches, from, matchCount - from - 1);
+                matchCount--;
+            }
+            if (fromPosition < toPosition) {
+                for (int i = from; i < matchCount && matches[i] <= toPosition; i++) {
+                    matches[i]--;
+                }
+            } else {
+                for (int i = lowerBound(toPosition); i < matchCount && matches[i] < fromPosition; i++) {
+                    matches[i]++;
+                }
+            }
+            if (isMatch) {
+                int to = lowerBound(toPosition);
+                insertMatch(to, toPosition);
+                if (from != to) {
+                    notifyItemMoved(from, to);
+                }
+            }
+        }
+
+        @Override
+        public void onDataSetInvalidated() {
+            sourceItems.clear();
+            collectItems(source, 0, source.getItemCount(), sourceItems);
+            matchCount = 0;
+            for (int i = 0; i < sourceItems.size(); i++) {
+                if (predicate.test(sourceItems.get(i))) {
+                    insertMatch(matchCount, i);
+                }
+            }
+            notifyDataSetInvalidated();
+        }
+    };
+
+    /**
+     * Re-test the items in a range of source positions, then notify the differences from the
+     * previous matches as the fewest range changes. The new matches are in place before anything
+     * is notified.
+     *
+     * @param notifyRetained Whether items which matched before and still do should be notified
+     *                       as changed
+     */
+    private void refilter(int start, int end, int mode, boolean notifyRetained, @Nullable Object payload) {
+        int first = lowerBound(start);
+        int oldEnd = lowerBound(end);
+        int tested = mode == TEST_MATCHES ? oldEnd - first : end - start;
+        int[] next = ensureCapacity(scratch, matchCount - (oldEnd - first) + tested);
+
+        System.arraycopy(matches, 0, next, 0, first);
+        int count = first;
+        if (mode == TEST_MATCHES) {
+            for (int i = first; i < oldEnd; i++) {
+                if (predicate.test(sourceItems.get(matches[i]))) {
+                    next[count++] = matches[i];
+                }
+            }
+        } else {
+            int oldIndex = first;
+            for (int position = start; position < end; position++) {
+                boolean wasMatch = oldIndex < oldEnd && matches[oldIndex] == position;
+                if (wasMatch) {
+                    oldIndex++;
+                }
+                if ((mode == TEST_NON_MATCHES && wasMatch) || predicate.test(sourceItems.get(position))) {
+                    next[count++] = position;
+                }
+            }
+        }
+        int newEnd = count;
+        System.arraycopy(matches, oldEnd, next, count, matchCount - oldEnd);
+        count += matchCount - oldEnd;
+
+        int[] previous = matches;
+        matches = next;
+        scratch = previous;
+        matchCount = count;
+
+        // Walk the old and new matches in step, as a merge
+        int oldIndex = first;
+        int newIndex = first;
+        int position = first;
+        while (oldIndex < oldEnd || newIndex < newEnd) {
+            int oldMatch = oldIndex < oldEnd ? previous[oldIndex] : Integer.MAX_VALUE;
+            int newMatch = newIndex < newEnd ? next[newIndex] : Integer.MAX_VALUE;
+            if (oldMatch == newMatch) {
+                if (notifyRetained) {
+                    addToRun(RUN_CHANGED, position, payload);
+                }
+                oldIndex++;
+                newIndex++;
+                position++;
+            } else if (oldMatch < newMatch) {
+                addToRun(RUN_REMOVED, position, null);
+                oldIndex++;
+            } else {
+                addToRun(RUN_INSERTED, position, null);
+                newIndex++;
+                position++;
+            }
+        }
+        flushRun();
+    }
+
+    private void addToRun(int type, int position, @Nullable Object payload) {
+        boolean isContiguous = type == RUN_REMOVED ? position == runStart : position == runStart + runCount;
+        if (type == runType && isContiguous && payload == runPayload) {
+            runCount++;
+            return;
+        }
+        flushRun();
+        runType = type;
+        runStart = position;
+        runCount = 1;
+        runPayload = payload;
+    }
+
+    private void flushRun() {
+        switch (runType) {
+            case RUN_INSERTED:
+                notifyItemRangeInserted(runStart, runCount);
+                break;
+            case RUN_REMOVED:
+                notifyItemRangeRemoved(runStart, runCount);
+                break;
+            case RUN_CHANGED:
+                notifyItemRangeChanged(runStart, runCount, runPayload);
+                break;
+        }
+        runType = RUN_NONE;
+        runPayload = null;
+    }
+
+    private void insertMatch(int index, int sourcePosition) {
+        matches = ensureCapacity(matches, matchCount + 1);
+        System.arraycopy(matches, index, matches, index + 1, matchCount - index);
+        matches[index] = sourcePosition;
+        matchCount++;
+    }
+
+    /**
+     * @return The index of the first match at or after the given source position
+     */
+    private int lowerBound(int sourcePosition) {
+        int low = 0;
+        int high = matchCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (matches[middle] < sourcePosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @NonNull
+    private static int[] ensureCapacity(@NonNull int[] array, int capacity) {
+        if (array.length >= capacity) {
+            return array;
+        }
+        int[] grown = new int[Math.max(capacity, array.length * 2)];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Collect the items in a range of a group's positions, walking nested groups rather than
+     * looking each position up from the top.
+     */
+    private static void collectItems(@NonNull Group group, int start, int end, @NonNull List<Item> out) {
+        if (group instanceof Item) {
+            if (start <= 0 && end > 0) {
+                out.add((Item) group);
+            }
+        } else if (group instanceof NestedGroup) {
+            NestedGroup nestedGroup = (NestedGroup) group;
+            int offset = 0;
+            for (int i = 0; i < nestedGroup.getGroupCount() && offset < end; i++) {
+                Group child = nestedGroup.getGroup(i);
+                int childCount = child.getItemCount();
+                if (offset + childCount > start) {
+                    collectItems(child, start - offset, end - offset, out);
+                }
+                offset += childCount;
+            }
+        } else {
+            for (int i = Math.max(0, start); i < Math.min(end, group.getItemCount()); i++) {
+                out.add(group.getItem(i));
+            }
+        }
+    }
+}
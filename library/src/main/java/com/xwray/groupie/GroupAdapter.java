@@ -1,17 +1,21 @@
 package com.xwray.groupie;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -19,40 +23,114 @@ import java.util.List;
  */
 public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Adapter<VH> implements GroupDataObserver {
 
+    private static final int TIMED_CREATE = 0;
+    private static final int TIMED_BIND = 1;
+    private static final int TIMED_RECYCLE = 2;
+    /**
+     * How many times an async update whose result went stale is diffed again before giving up
+     */
+    private static final int MAX_STALE_ASYNC_RETRIES = 2;
+
     private final List<Group> groups = new ArrayList<>();
     private OnItemClickListener onItemClickListener;
     private OnItemLongClickListener onItemLongClickListener;
     private int spanCount = 1;
     private Item lastItemForViewTypeLookup;
+    @Nullable
+    private CachingSpanSizeLookup cachingSpanSizeLookup;
+    @Nullable
+    private LongHashSet duplicateIdCheckSet;
+    private final DeferredBinder deferredBinder = new DeferredBinder();
+    @Nullable
+    private RecyclerView attachedRecyclerView;
+    @Nullable
+    private TimingListener timingListener;
+    private int timingSampleInterval = 1;
+    @VisibleForTesting
+    @Nullable
+    NotificationDiagnostics notificationDiagnostics;
+    @Nullable
+    private ImpressionTracker impressionTracker;
+    private final int[] untilNextTimingSample = new int[3];
+    /**
+     * How many times the current async update has been diffed again after its result went stale
+     */
+    private int staleAsyncRetries = 0;
 
-    private AsyncDiffUtil.Callback diffUtilCallbacks = new AsyncDiffUtil.Callback() {
+    final AsyncDiffUtil.Callback diffUtilCallbacks = new AsyncDiffUtil.Callback() {
         @Override
         public void onDispatchAsyncResult(@NonNull Collection<? extends Group> newGroups) {
+            partialUpdateLog.stop();
             setNewGroups(newGroups);
         }
 
+        @Override
+        public boolean isAsyncResultStale() {
+            return partialUpdateLog.isStale();
+        }
+
+        @Override
+        public void onAsyncResultStale(@NonNull Collection<? extends Group> newGroups, boolean detectMoves,
+                                       @Nullable OnAsyncUpdateListener onAsyncUpdateListener) {
+            partialUpdateLog.stop();
+            partialUpdateLog.clear();
+            if (staleAsyncRetries < MAX_STALE_ASYNC_RETRIES) {
+                // Diff again from the groups as they are now
+                staleAsyncRetries++;
+                calculateDiffAsync(newGroups, detectMoves, onAsyncUpdateListener);
+                return;
+            }
+            // The groups keep changing faster than they can be diffed, so stop chasing them
+            setNewGroups(newGroups);
+            dispatchDataSetChanged();
+            if (onAsyncUpdateListener != null) {
+                onAsyncUpdateListener.onUpdateComplete();
+            }
+        }
+
+        @Override
+        public void onAsyncResultDispatched(@NonNull GroupSnapshot newItems) {
+            // Reused as the old items of the next async update, unless anything is notified first
+            displayedItems = newItems;
+            partialUpdateLog.replayTo(GroupAdapter.this);
+        }
+
+        @Override
+        public void onDiffCalculated(int oldItemCount, int newItemCount, long durationNanos) {
+            if (timingListener != null) {
+                timingListener.onAsyncDiffCalculated(oldItemCount, newItemCount, durationNanos);
+            }
+        }
+
         @Override
         public void onInserted(int position, int count) {
-            notifyItemRangeInserted(position, count);
+            dispatchItemRangeInserted(position, count);
         }
 
         @Override
         public void onRemoved(int position, int count) {
-            notifyItemRangeRemoved(position, count);
+            dispatchItemRangeRemoved(position, count);
         }
 
         @Override
         public void onMoved(int fromPosition, int toPosition) {
-            notifyItemMoved(fromPosition, toPosition);
+            dispatchItemMoved(fromPosition, toPosition);
         }
 
         @Override
         public void onChanged(int position, int count, Object payload) {
-            notifyItemRangeChanged(position, count, payload);
+            dispatchItemRangeChanged(position, count, payload);
         }
     };
 
-    private AsyncDiffUtil asyncDiffUtil = new AsyncDiffUtil(diffUtilCallbacks);
+    AsyncDiffUtil asyncDiffUtil = new AsyncDiffUtil(diffUtilCallbacks);
+    private final PartialUpdateLog partialUpdateLog = new PartialUpdateLog();
+    /**
+     * A snapshot of the displayed items, while it is known to be current
+     */
+    @Nullable
+    GroupSnapshot displayedItems;
+    private boolean pausesUpdatesWhileDetached;
 
     private final GridLayoutManager.SpanSizeLookup spanSizeLookup = new GridLayoutManager.SpanSizeLookup() {
         @Override
@@ -71,8 +149,34 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
         return spanSizeLookup;
     }
 
+    /**
+     * A {@link GridLayoutManager.SpanSizeLookup} which remembers each position's span size and
+     * turns on GridLayoutManager's span index and span group index caches. Changes made through
+     * the adapter and its groups invalidate only the affected positions, so large grids don't ask
+     * every Item for its span size on each layout pass.
+     * <p>
+     * Use this instead of {@link #getSpanSizeLookup()} when an Item's span size depends only on the
+     * span count, not on its position. If you call RecyclerView's notify methods on this adapter
+     * yourself, call {@link CachingSpanSizeLookup#invalidateSpanSizeCache()} as well.
+     *
+     * @return The adapter's caching span size lookup
+     */
+    @NonNull
+    public CachingSpanSizeLookup getCachingSpanSizeLookup() {
+        if (cachingSpanSizeLookup == null) {
+            cachingSpanSizeLookup = new CachingSpanSizeLookup(this);
+        }
+        return cachingSpanSizeLookup;
+    }
+
     public void setSpanCount(int spanCount) {
+        if (this.spanCount == spanCount) {
+            return;
+        }
         this.spanCount = spanCount;
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.invalidateSpanSizeCache();
+        }
     }
 
     public int getSpanCount() {
@@ -83,9 +187,11 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      * Updates the adapter with a new list that will be diffed on a background thread
      * and displayed once diff results are calculated.
      *
-     * NOTE: This update method is NOT compatible with partial updates (change notifications
-     * driven by individual groups and items).  If you update using this method, all partial
-     * updates will no longer work and you must use this method to update exclusively.
+     * Partial updates (change notifications driven by individual groups and items) keep working
+     * while the diff is calculated. Changes to groups only in the new list are replayed once it is
+     * displayed. If any groups change structurally meanwhile, the result no longer applies and the
+     * update is diffed again in the background. If that keeps happening, the new groups are
+     * swapped in without animations rather than diffed on the main thread.
      * <br/> <br/>
      * If you want to receive a callback once the update is complete call the
      * {@link #updateAsync(List, boolean, OnAsyncUpdateListener)} version
@@ -103,9 +209,11 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      * Updates the adapter with a new list that will be diffed on a background thread
      * and displayed once diff results are calculated.
      *
-     * NOTE: This update method is NOT compatible with partial updates (change notifications
-     * driven by individual groups and items).  If you update using this method, all partial
-     * updates will no longer work and you must use this method to update exclusively.
+     * Partial updates (change notifications driven by individual groups and items) keep working
+     * while the diff is calculated. Changes to groups only in the new list are replayed once it is
+     * displayed. If any groups change structurally meanwhile, the result no longer applies and the
+     * update is diffed again in the background. If that keeps happening, the new groups are
+     * swapped in without animations rather than diffed on the main thread.
      * <br/> <br/>
      *
      * This will default detectMoves to true.
@@ -122,9 +230,15 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      * Updates the adapter with a new list that will be diffed on a background thread
      * and displayed once diff results are calculated.
      *
-     * NOTE: This update method is NOT compatible with partial updates (change notifications
-     * driven by individual groups and items).  If you update using this method, all partial
-     * updates will no longer work and you must use this method to update exclusively.
+     * Partial updates (change notifications driven by individual groups and items) keep working
+     * while the diff is calculated. Changes to groups only in the new list are replayed once it is
+     * displayed. If any groups change structurally meanwhile, the result no longer applies and the
+     * update is diffed again in the background. If that keeps happening, the new groups are
+     * swapped in without animations rather than diffed on the main thread.
+     * <br/> <br/>
+     * The items in the old and new groups are snapshotted when this is called, and the diff reads
+     * only the snapshots, so groups can go on changing meanwhile. Items themselves are shared, so
+     * replace an item with a new instance rather than mutating it while a diff may be running.
      *
      * @param newGroups List of {@link Group}
      * @param onAsyncUpdateListener Optional callback for when the async update is complete
@@ -133,31 +247,44 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      */
     @SuppressWarnings("unused")
     public void updateAsync(@NonNull final List<? extends Group> newGroups, boolean detectMoves, @Nullable final OnAsyncUpdateListener onAsyncUpdateListener) {
-        // Fast simple first insert
-        if (groups.isEmpty()) {
+        staleAsyncRetries = 0;
+        calculateDiffAsync(newGroups, detectMoves, onAsyncUpdateListener);
+    }
+
+    private void calculateDiffAsync(@NonNull Collection<? extends Group> newGroups, boolean detectMoves,
+                                    @Nullable OnAsyncUpdateListener onAsyncUpdateListener) {
+        // Fast simple first insert, or no RecyclerView to animate the diff. Nothing is
+        // precomputed, as that would delay showing the first items.
+        if (groups.isEmpty() || isUpdatePaused()) {
+            partialUpdateLog.stop();
+            partialUpdateLog.clear();
             update(newGroups, detectMoves);
             if (onAsyncUpdateListener != null) {
                 onAsyncUpdateListener.onUpdateComplete();
             }
             return;
         }
-        final List<Group> oldGroups = new ArrayList<>(groups);
+        GroupSnapshot oldItems = displayedItems != null ? displayedItems : GroupSnapshot.of(groups);
+        partialUpdateLog.start(groups, newGroups);
 
-        final DiffCallback diffUtilCallback = new DiffCallback(oldGroups, newGroups);
-        asyncDiffUtil.calculateDiff(newGroups, diffUtilCallback, onAsyncUpdateListener, detectMoves);
+        final DiffCallback diffUtilCallback = new DiffCallback(oldItems, GroupSnapshot.of(newGroups));
+        final Context precomputeContext = attachedRecyclerView != null ? attachedRecyclerView.getContext() : null;
+        asyncDiffUtil.calculateDiff(newGroups, diffUtilCallback, onAsyncUpdateListener, detectMoves, precomputeContext);
     }
 
     /**
      * Replaces the groups within the adapter without using DiffUtil, and therefore without animations.
      *
      * For animation support, use {@link GroupAdapter#update(Collection)} or {@link GroupAdapter#updateAsync(List)} instead.
+     * With {@link #enableStableIds(boolean) stable ids}, RecyclerView keeps the ViewHolders of items
+     * whose ids are still present rather than rebinding every row.
      *
      * @param newGroups List of {@link Group}
      */
     @SuppressWarnings("unused")
     public void replaceAll(@NonNull final Collection<? extends Group> newGroups) {
         setNewGroups(newGroups);
-        notifyDataSetChanged();
+        dispatchDataSetChanged();
     }
 
     /**
@@ -182,17 +309,302 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      */
     @SuppressWarnings("unused")
     public void update(@NonNull final Collection<? extends Group> newGroups, boolean detectMoves) {
-        final List<Group> oldGroups = new ArrayList<>(groups);
+        if (isUpdatePaused()) {
+            replaceWhileDetached(newGroups);
+            return;
+        }
         final DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
-                new DiffCallback(oldGroups, newGroups),
+                new DiffCallback(groups, newGroups),
                 detectMoves
         );
 
+        update(newGroups, diffResult);
+    }
+
+    /**
+     * Create a DiffUtil callback from the current groups to new ones. It reads snapshots of both
+     * taken now, so the diff can be calculated on any thread. Pass the result to
+     * {@link #update(Collection, DiffUtil.DiffResult)}, and don't add or remove items in the
+     * adapter any other way meanwhile.
+     *
+     * @param newGroups List of {@link Group}
+     */
+    @NonNull
+    public DiffUtil.Callback createDiffCallback(@NonNull final Collection<? extends Group> newGroups) {
+        return new DiffCallback(groups, newGroups);
+    }
+
+    /**
+     * Overloaded version of update method in which you can pass your own DiffUtil.DiffResult,
+     * e.g. from diffing a {@link #createDiffCallback(Collection)} on a background thread.
+     *
+     * @param newGroups List of {@link Group}
+     * @param diffResult The diff from the current groups to the new ones
+     */
+    public void update(@NonNull final Collection<? extends Group> newGroups, @NonNull DiffUtil.DiffResult diffResult) {
+        if (isUpdatePaused()) {
+            replaceWhileDetached(newGroups);
+            return;
+        }
         setNewGroups(newGroups);
 
         diffResult.dispatchUpdatesTo(diffUtilCallbacks);
     }
 
+    /**
+     * Update without diffing, for {@link #setPausesUpdatesWhileDetached(boolean)}. Any async diff
+     * still running is for an older update, so its result is discarded.
+     */
+    private void replaceWhileDetached(@NonNull Collection<? extends Group> newGroups) {
+        asyncDiffUtil.discardRunningDiffs();
+        partialUpdateLog.stop();
+        partialUpdateLog.clear();
+        setNewGroups(newGroups);
+        dispatchDataSetChanged();
+    }
+
+    /**
+     * Replace items anywhere in the adapter with new instances which have the same ids, notifying
+     * only a change for each, with the same payload a diff would send. Nothing
+     * is diffed, so this suits frequent changes to a few items of a large list, e.g. live prices.
+     * <p>
+     * Top level Items are matched directly; the rest are looked up by id in top level
+     * {@link Section}s, as with {@link Section#updateItems(Collection)}. Replacements with the same
+     * content as the item they replace are swapped in without notifying RecyclerView, and items
+     * which are already in the adapter are left alone.
+     *
+     * @param replacements The new items
+     * @return The number of items which were replaced
+     * @throws IllegalArgumentException If a replacement isn't {@link Item#isSameAs(Item) the same}
+     *                                  as the item with its id. Replacements before it have
+     *                                  already been made.
+     */
+    public int updateItems(@NonNull Collection<? extends Item> replacements) {
+        if (replacements.isEmpty()) {
+            return 0;
+        }
+        List<Item> pending = new ArrayList<>(replacements);
+        LongIntHashMap pendingIndexById = new LongIntHashMap(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            pendingIndexById.put(pending.get(i).getId(), i);
+        }
+
+        int replaced = 0;
+        boolean[] isReplaced = new boolean[pending.size()];
+        List<Section> sections = new ArrayList<>();
+        int position = 0;
+        for (int i = 0; i < groups.size(); i++) {
+            Group group = groups.get(i);
+            if (group instanceof Item) {
+                int index = pendingIndexById.get(((Item) group).getId(), -1);
+                if (index >= 0 && !isReplaced[index]) {
+                    replaceTopLevelItem(i, position, pending.get(index));
+                    isReplaced[index] = true;
+                    replaced++;
+                }
+            } else if (group instanceof Section) {
+                sections.add((Section) group);
+            }
+            position += group.getItemCount();
+        }
+
+        List<Item> unmatched = new ArrayList<>(pending.size() - replaced);
+        for (int i = 0; i < pending.size(); i++) {
+            if (!isReplaced[i]) {
+                unmatched.add(pending.get(i));
+            }
+        }
+        for (int i = 0; i < sections.size() && !unmatched.isEmpty(); i++) {
+            List<Item> stillUnmatched = new ArrayList<>();
+            replaced += sections.get(i).updateItems(unmatched, stillUnmatched);
+            unmatched = stillUnmatched;
+        }
+        return replaced;
+    }
+
+    private void replaceTopLevelItem(int groupIndex, int position, @NonNull Item replacement) {
+        Item oldItem = (Item) groups.get(groupIndex);
+        if (oldItem == replacement) {
+            // Already in place, so there is nothing to compare it with
+            return;
+        }
+        GroupUtils.checkSameAs(oldItem, replacement);
+        oldItem.unregisterGroupDataObserver(this);
+        groups.set(groupIndex, replacement);
+        replacement.registerGroupDataObserver(this);
+        if (replacement.hasSameContentAs(oldItem)) {
+            // Nothing to rebind, but the snapshot of displayed items still has the old instance
+            onDispatch(false);
+        } else {
+            dispatchItemChanged(position, ChangeMask.getChangePayload(oldItem, replacement));
+        }
+    }
+
+    /**
+     * Turn on RecyclerView's stable IDs, using each Item's {@link Item#getId()}. RecyclerView can
+     * then keep and reuse the ViewHolders of items whose id is still present after
+     * {@link #replaceAll(Collection)} or another data set change, instead of rebinding every
+     * visible row.
+     * <p>
+     * Ids must be unique within the adapter. The default ids are, but if you override
+     * {@link Item#getId()} with ids from your own models, you may want to pass
+     * {@code checkForDuplicateIds} in debug builds (e.g. {@code BuildConfig.DEBUG}).
+     * <p>
+     * Like {@link #setHasStableIds(boolean)}, this must be called before the adapter is set on a
+     * RecyclerView.
+     *
+     * @param checkForDuplicateIds Whether to check that all ids are unique whenever items are
+     *                             added, throwing an {@link IllegalStateException} if not. Groups
+     *                             added through the adapter are checked before anything changes;
+     *                             items added inside groups are checked once the change has been
+     *                             notified. This visits every item in the adapter, so keep it off
+     *                             in release builds.
+     */
+    public void enableStableIds(boolean checkForDuplicateIds) {
+        setHasStableIds(true);
+        duplicateIdCheckSet = checkForDuplicateIds ? new LongHashSet() : null;
+        checkForDuplicateIds(groups);
+    }
+
+    /**
+     * Whether to stop diffing updates while the adapter isn't attached to a RecyclerView, e.g.
+     * while its fragment is in the back stack. Until one is attached, {@link #update(Collection)},
+     * {@link #updateAsync(List)} and their overloads just swap in the new groups and notify
+     * that everything changed, as nothing is there to animate. A RecyclerView lays out all of the
+     * adapter's items when it is attached anyway, so it shows the latest groups without a diff.
+     * Change notifications from groups and items are still dispatched, but nothing diffs them.
+     * <p>
+     * Defaults to false.
+     */
+    public void setPausesUpdatesWhileDetached(boolean pausesUpdatesWhileDetached) {
+        this.pausesUpdatesWhileDetached = pausesUpdatesWhileDetached;
+    }
+
+    private boolean isUpdatePaused() {
+        return pausesUpdatesWhileDetached && attachedRecyclerView == null;
+    }
+
+    /**
+     * Set how much of each frame may be spent on {@link Item#bindDeferred(GroupieViewHolder, int)}
+     * for items which {@link Item#hasDeferredBind() defer part of their binding}. Binds which
+     * don't fit carry over to the next frame. At least one deferred bind runs per frame.
+     * <p>
+     * Defaults to 4ms, a quarter of a 60fps frame.
+     *
+     * @param millis The per-frame budget in milliseconds
+     */
+    public void setDeferredBindFrameBudgetMillis(int millis) {
+        deferredBinder.setFrameBudgetMillis(millis);
+    }
+
+    /**
+     * Optionally register a {@link TimingListener} which is told how long every view holder
+     * create, bind and recycle took, and how long each async diff took.
+     *
+     * @param timingListener The listener to set, or null to stop timing
+     * @see #setTimingListener(TimingListener, int)
+     */
+    public void setTimingListener(@Nullable TimingListener timingListener) {
+        setTimingListener(timingListener, 1);
+    }
+
+    /**
+     * Optionally register a {@link TimingListener} which is told how long view holder creates,
+     * binds and recycles took, and how long each async diff took.
+     * <p>
+     * Only one in every {@code sampleInterval} creates, binds and recycles is timed; the others
+     * cost no more than with no listener. Every async diff is reported.
+     *
+     * @param timingListener The listener to set, or null to stop timing
+     * @param sampleInterval How many of each kind of event to skip between timings, plus one
+     */
+    public void setTimingListener(@Nullable TimingListener timingListener, int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Sample interval must be at least 1: " + sampleInterval);
+        }
+        this.timingListener = timingListener;
+        this.timingSampleInterval = sampleInterval;
+        Arrays.fill(untilNextTimingSample, 1);
+    }
+
+    /**
+     * Optionally register an {@link OnNotificationStatsListener} which is told, once per frame,
+     * how many change notifications of each type the adapter received and how much work passing
+     * them up the group tree took.
+     *
+     * @param listener The listener to set, or null to stop counting
+     * @see #setNotificationStatsListener(OnNotificationStatsListener, boolean)
+     */
+    public void setNotificationStatsListener(@Nullable OnNotificationStatsListener listener) {
+        setNotificationStatsListener(listener, false);
+    }
+
+    /**
+     * Optionally register an {@link OnNotificationStatsListener} which is told, once per frame,
+     * how many change notifications of each type the adapter received and how much work passing
+     * them up the group tree took. Use it to find groups which send many or redundant
+     * notifications.
+     * <p>
+     * This is a diagnostics mode: from when any adapter is given a listener until it is set back to
+     * null, every group notification in the process is counted, so don't leave it on in release
+     * builds. Without a listener, counting costs a single check per notification. Frames are only
+     * reported while the adapter is attached to a RecyclerView.
+     *
+     * @param listener         The listener to set, or null to stop counting
+     * @param captureCallSites Whether to also count notifications by the first method on the call
+     *                         stack outside Groupie. This captures a stack trace per notification.
+     */
+    public void setNotificationStatsListener(@Nullable OnNotificationStatsListener listener, boolean captureCallSites) {
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.release();
+            notificationDiagnostics = null;
+        }
+        if (listener != null) {
+            notificationDiagnostics = new NotificationDiagnostics(listener, captureCallSites);
+            if (attachedRecyclerView != null) {
+                notificationDiagnostics.onAttachedToRecyclerView(attachedRecyclerView);
+            }
+        }
+    }
+
+    /**
+     * Optionally register an {@link OnImpressionListener} which is told when items have been at
+     * least half visible for a second.
+     *
+     * @param listener The listener to set, or null to stop tracking impressions
+     * @see #setOnImpressionListener(OnImpressionListener, float, long)
+     */
+    public void setOnImpressionListener(@Nullable OnImpressionListener listener) {
+        setOnImpressionListener(listener, 0.5f, 1000);
+    }
+
+    /**
+     * Optionally register an {@link OnImpressionListener} which is told when items have been
+     * visible enough for long enough to count as seen, e.g. for analytics. An item counts once
+     * each time it becomes visible, and is identified by its {@link Item#getId() id}, so give
+     * items stable ids if impressions should survive updates.
+     * <p>
+     * Visibility is measured once per frame in which the list scrolled or laid out, rather than
+     * as each view is attached, and impressions from one frame are delivered together.
+     *
+     * @param listener           The listener to set, or null to stop tracking impressions
+     * @param minVisibleFraction The fraction of an item's area which must be visible, from 0 to 1
+     * @param minVisibleMillis   How long an item must stay that visible
+     */
+    public void setOnImpressionListener(@Nullable OnImpressionListener listener,
+                                        float minVisibleFraction, long minVisibleMillis) {
+        if (impressionTracker != null) {
+            impressionTracker.release();
+            impressionTracker = null;
+        }
+        if (listener != null) {
+            impressionTracker = new ImpressionTracker(listener, minVisibleFraction, minVisibleMillis);
+            if (attachedRecyclerView != null) {
+                impressionTracker.onAttachedToRecyclerView(attachedRecyclerView);
+            }
+        }
+    }
+
     /**
      * Optionally register an {@link OnItemClickListener} that listens to click at the root of
      * each Item where {@link Item#isClickable()} returns true
@@ -216,10 +628,24 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
     @Override
     @NonNull
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        boolean isTimed = isTimingSample(TIMED_CREATE);
+        long start = isTimed ? System.nanoTime() : 0;
         LayoutInflater inflater = LayoutInflater.from(parent.getContext());
         Item<VH> item = getItemForViewType(viewType);
-        View itemView = inflater.inflate(item.getLayout(), parent, false);
-        return item.createViewHolder(itemView);
+        boolean isTraced = GroupieTrace.beginSection("Groupie create ", item);
+        VH viewHolder;
+        try {
+            View itemView = inflater.inflate(item.getLayout(), parent, false);
+            viewHolder = item.createViewHolder(itemView);
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
+        if (isTimed) {
+            timingListener.onViewHolderCreated(item, viewType, System.nanoTime() - start);
+        }
+        return viewHolder;
     }
 
     @Override
@@ -229,14 +655,63 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
-        Item contentItem = getItem(position);
-        contentItem.bind(holder, position, payloads, onItemClickListener, onItemLongClickListener);
+        boolean isTimed = isTimingSample(TIMED_BIND);
+        long start = isTimed ? System.nanoTime() : 0;
+        Item contentItem = GroupUtils.getItemToBind(groups, position);
+        boolean isTraced = GroupieTrace.beginSection(payloads.isEmpty() ? "Groupie bind " : "Groupie payload bind ", contentItem);
+        try {
+            contentItem.bind(holder, position, payloads, onItemClickListener, onItemLongClickListener);
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
+        if (isTimed) {
+            timingListener.onViewHolderBound(holder, contentItem, !payloads.isEmpty(), System.nanoTime() - start);
+        }
+        if (payloads.isEmpty() && contentItem.hasDeferredBind()) {
+            deferredBinder.add(holder, position);
+        }
     }
 
     @Override
     public void onViewRecycled(@NonNull VH holder) {
+        boolean isTimed = isTimingSample(TIMED_RECYCLE);
+        long start = isTimed ? System.nanoTime() : 0;
         Item contentItem = holder.getItem();
+        deferredBinder.remove(holder);
         contentItem.unbind(holder);
+        if (isTimed) {
+            timingListener.onViewHolderRecycled(holder, contentItem, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        attachedRecyclerView = recyclerView;
+        deferredBinder.onAttachedToRecyclerView(recyclerView);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAttachedToRecyclerView(recyclerView);
+        }
+        if (impressionTracker != null) {
+            impressionTracker.onAttachedToRecyclerView(recyclerView);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (attachedRecyclerView == recyclerView) {
+            attachedRecyclerView = null;
+        }
+        deferredBinder.onDetachedFromRecyclerView(recyclerView);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onDetachedFromRecyclerView(recyclerView);
+        }
+        if (impressionTracker != null) {
+            impressionTracker.onDetachedFromRecyclerView(recyclerView);
+        }
     }
 
     @Override
@@ -301,6 +776,9 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
     public int getAdapterPosition(@NonNull Group group) {
         int index = groups.indexOf(group);
         if (index == -1) return -1;
+        if (NotificationCounters.enabled) {
+            NotificationCounters.onPositionWalk(index);
+        }
         int position = 0;
         for (int i = 0; i < index; i++) {
             position += groups.get(i).getItemCount();
@@ -347,15 +825,16 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
             group.unregisterGroupDataObserver(this);
         }
         groups.clear();
-        notifyDataSetChanged();
+        dispatchDataSetChanged();
     }
 
     public void add(@NonNull Group group) {
         if (group == null) throw new RuntimeException("Group cannot be null");
+        checkForDuplicateIdsWith(Collections.singletonList(group));
         int itemCountBeforeGroup = getItemCount();
         group.registerGroupDataObserver(this);
         groups.add(group);
-        notifyItemRangeInserted(itemCountBeforeGroup, group.getItemCount());
+        dispatchItemRangeInserted(itemCountBeforeGroup, group.getItemCount());
     }
 
     /**
@@ -366,6 +845,7 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
      */
     public void addAll(@NonNull Collection<? extends Group> groups) {
         if (groups.contains(null)) throw new RuntimeException("List of groups can't contain null!");
+        checkForDuplicateIdsWith(groups);
         int itemCountBeforeGroup = getItemCount();
         int additionalSize = 0;
         for (Group group : groups) {
@@ -373,7 +853,7 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
             group.registerGroupDataObserver(this);
         }
         this.groups.addAll(groups);
-        notifyItemRangeInserted(itemCountBeforeGroup, additionalSize);
+        dispatchItemRangeInserted(itemCountBeforeGroup, additionalSize);
     }
 
     public void remove(@NonNull Group group) {
@@ -411,15 +891,16 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
         int itemCountBeforeGroup = getItemCountBeforeGroup(position);
         group.unregisterGroupDataObserver(this);
         groups.remove(position);
-        notifyItemRangeRemoved(itemCountBeforeGroup, group.getItemCount());
+        dispatchItemRangeRemoved(itemCountBeforeGroup, group.getItemCount());
     }
 
     public void add(int index, @NonNull Group group) {
         if (group == null) throw new RuntimeException("Group cannot be null");
+        checkForDuplicateIdsWith(Collections.singletonList(group));
         group.registerGroupDataObserver(this);
         groups.add(index, group);
         int itemCountBeforeGroup = getItemCountBeforeGroup(index);
-        notifyItemRangeInserted(itemCountBeforeGroup, group.getItemCount());
+        dispatchItemRangeInserted(itemCountBeforeGroup, group.getItemCount());
     }
 
     /**
@@ -487,58 +968,61 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
 
     @Override
     public void onChanged(@NonNull Group group) {
-        notifyItemRangeChanged(getAdapterPosition(group), group.getItemCount());
+        dispatchItemRangeChanged(getAdapterPosition(group), group.getItemCount());
     }
 
     @Override
     public void onItemInserted(@NonNull Group group, int position) {
-        notifyItemInserted(getAdapterPosition(group) + position);
+        dispatchItemInserted(getAdapterPosition(group) + position);
+        checkForDuplicateIds(groups);
     }
 
     @Override
     public void onItemChanged(@NonNull Group group, int position) {
-        notifyItemChanged(getAdapterPosition(group) + position);
+        dispatchItemChanged(getAdapterPosition(group) + position);
     }
 
     @Override
     public void onItemChanged(@NonNull Group group, int position, Object payload) {
-        notifyItemChanged(getAdapterPosition(group) + position, payload);
+        dispatchItemChanged(getAdapterPosition(group) + position, payload);
     }
 
     @Override
     public void onItemRemoved(@NonNull Group group, int position) {
-        notifyItemRemoved(getAdapterPosition(group) + position);
+        dispatchItemRemoved(getAdapterPosition(group) + position);
     }
 
     @Override
     public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount) {
-        notifyItemRangeChanged(getAdapterPosition(group) + positionStart, itemCount);
+        dispatchItemRangeChanged(getAdapterPosition(group) + positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount, Object payload) {
-        notifyItemRangeChanged(getAdapterPosition(group) + positionStart, itemCount, payload);
+        dispatchItemRangeChanged(getAdapterPosition(group) + positionStart, itemCount, payload);
     }
 
     @Override
     public void onItemRangeInserted(@NonNull Group group, int positionStart, int itemCount) {
-        notifyItemRangeInserted(getAdapterPosition(group) + positionStart, itemCount);
+        dispatchItemRangeInserted(getAdapterPosition(group) + positionStart, itemCount);
+        checkForDuplicateIds(groups);
     }
 
     @Override
     public void onItemRangeRemoved(@NonNull Group group, int positionStart, int itemCount) {
-        notifyItemRangeRemoved(getAdapterPosition(group) + positionStart, itemCount);
+        dispatchItemRangeRemoved(getAdapterPosition(group) + positionStart, itemCount);
     }
 
     @Override
     public void onItemMoved(@NonNull Group group, int fromPosition, int toPosition) {
         int groupAdapterPosition = getAdapterPosition(group);
-        notifyItemMoved(groupAdapterPosition + fromPosition, groupAdapterPosition + toPosition);
+        dispatchItemMoved(groupAdapterPosition + fromPosition, groupAdapterPosition + toPosition);
     }
 
     @Override
     public void onDataSetInvalidated() {
-        notifyDataSetChanged();
+        dispatchDataSetChanged();
+        checkForDuplicateIds(groups);
     }
 
     /**
@@ -563,16 +1047,34 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
         }
 
         // To be extra safe in case RecyclerView implementation details change...
-        for (int i = 0; i < getItemCount(); i++) {
-            Item item = getItem(i);
-            if (item.getViewType() == viewType) {
-                return item;
+        boolean isTraced = GroupieTrace.beginSection("Groupie view type lookup fallback");
+        try {
+            for (int i = 0; i < getItemCount(); i++) {
+                Item item = getItem(i);
+                if (item.getViewType() == viewType) {
+                    return item;
+                }
+            }
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
             }
         }
 
         throw new IllegalStateException("Could not find model for view type: " + viewType);
     }
 
+    /**
+     * Whether to time this event, counting down to the next sample of its kind.
+     */
+    private boolean isTimingSample(int event) {
+        if (timingListener == null || --untilNextTimingSample[event] > 0) {
+            return false;
+        }
+        untilNextTimingSample[event] = timingSampleInterval;
+        return true;
+    }
+
     private int getItemCountBeforeGroup(int groupIndex) {
         int count = 0;
         for (Group group : groups.subList(0, groupIndex)) {
@@ -582,16 +1084,180 @@ public class GroupAdapter<VH extends GroupieViewHolder> extends RecyclerView.Ada
     }
 
     private void setNewGroups(@NonNull Collection<? extends Group> newGroups) {
-        for (Group group : groups) {
-            group.unregisterGroupDataObserver(this);
+        boolean isTraced = GroupieTrace.beginSection("Groupie setNewGroups");
+        try {
+            checkForDuplicateIds(newGroups);
+
+            for (Group group : groups) {
+                group.unregisterGroupDataObserver(this);
+            }
+
+            groups.clear();
+            groups.addAll(newGroups);
+
+            for (Group group : newGroups) {
+                group.registerGroupDataObserver(this);
+            }
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * Check the ids of the current groups together with groups about to be added.
+     */
+    private void checkForDuplicateIdsWith(@NonNull Collection<? extends Group> addedGroups) {
+        if (duplicateIdCheckSet == null) {
+            return;
         }
+        List<Group> allGroups = new ArrayList<>(groups.size() + addedGroups.size());
+        allGroups.addAll(groups);
+        allGroups.addAll(addedGroups);
+        checkForDuplicateIds(allGroups);
+    }
 
-        groups.clear();
-        groups.addAll(newGroups);
+    private void checkForDuplicateIds(@NonNull Collection<? extends Group> groups) {
+        if (duplicateIdCheckSet == null) {
+            return;
+        }
+        Item[] items = GroupUtils.flatten(groups);
+        duplicateIdCheckSet.clear(items.length);
+        for (Item item : items) {
+            if (!duplicateIdCheckSet.add(item.getId())) {
+                throw new IllegalStateException("Stable ids are enabled but more than one item has id "
+                        + item.getId() + ", including " + item);
+            }
+        }
+    }
 
-        for (Group group : newGroups) {
-            group.registerGroupDataObserver(this);
+    /**
+     * Called by a group which swapped items for new instances with the same content. RecyclerView
+     * has nothing to rebind, but the snapshot of displayed items still has the old instances.
+     */
+    void onItemInstancesReplaced() {
+        onDispatch(false);
+    }
+
+    /**
+     * @param isStructural Whether the notification is of items being inserted, removed or moved
+     */
+    private void onDispatch(boolean isStructural) {
+        displayedItems = null;
+        if (isStructural) {
+            partialUpdateLog.markStale();
+        }
+    }
+
+    private void dispatchDataSetChanged() {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_DATA_SET_INVALIDATED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onDataSetChanged();
+        }
+        notifyDataSetChanged();
+    }
+
+    private void dispatchItemInserted(int position) {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_INSERTED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeInserted(position, 1);
+        }
+        notifyItemInserted(position);
+    }
+
+    private void dispatchItemRangeInserted(int positionStart, int itemCount) {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_RANGE_INSERTED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeInserted(positionStart, itemCount);
+        }
+        notifyItemRangeInserted(positionStart, itemCount);
+    }
+
+    private void dispatchItemRemoved(int position) {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_REMOVED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeRemoved(position, 1);
+        }
+        notifyItemRemoved(position);
+    }
+
+    private void dispatchItemRangeRemoved(int positionStart, int itemCount) {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_RANGE_REMOVED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeRemoved(positionStart, itemCount);
+        }
+        notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+    private void dispatchItemMoved(int fromPosition, int toPosition) {
+        onDispatch(true);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_MOVED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemMoved(fromPosition, toPosition);
+        }
+        notifyItemMoved(fromPosition, toPosition);
+    }
+
+    private void dispatchItemChanged(int position) {
+        onDispatch(false);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_CHANGED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeChanged(position, 1);
+        }
+        notifyItemChanged(position);
+    }
+
+    private void dispatchItemChanged(int position, Object payload) {
+        onDispatch(false);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_CHANGED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeChanged(position, 1);
+        }
+        notifyItemChanged(position, payload);
+    }
+
+    private void dispatchItemRangeChanged(int positionStart, int itemCount) {
+        onDispatch(false);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_RANGE_CHANGED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeChanged(positionStart, itemCount);
+        }
+        notifyItemRangeChanged(positionStart, itemCount);
+    }
+
+    private void dispatchItemRangeChanged(int positionStart, int itemCount, Object payload) {
+        onDispatch(false);
+        if (notificationDiagnostics != null) {
+            notificationDiagnostics.onAdapterNotification(NotificationStats.TYPE_ITEM_RANGE_CHANGED);
+        }
+        if (cachingSpanSizeLookup != null) {
+            cachingSpanSizeLookup.onItemRangeChanged(positionStart, itemCount);
         }
+        notifyItemRangeChanged(positionStart, itemCount, payload);
     }
 
 }
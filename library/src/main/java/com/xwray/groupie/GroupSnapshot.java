@@ -0,0 +1,47 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collection;
+
+/**
+ * An immutable, flattened view of the items in some groups at one moment, so that they can be
+ * diffed on a background thread while the groups themselves go on changing on the main thread.
+ * <p>
+ * Taking a snapshot only copies item references, and looking an item up in one is O(1) rather
+ * than a walk through the groups. Only the structure is captured: items are shared with the
+ * groups, so an item whose fields are changed while diffing is still read mid-change. Replace
+ * such items with new instances instead of mutating them.
+ * <p>
+ * The copy is O(n) in the number of items and is made on the main thread, where the groups can
+ * be read safely, when an async update starts. This is deliberate: the alternative is DiffUtil
+ * reading the live groups from the background thread, which races with every change made to
+ * them meanwhile. It is one array copy per update, against the O(n) position walks DiffUtil
+ * would otherwise make per item, and the adapter reuses the snapshot of the new items as the
+ * old items of the next async update while nothing has been notified in between.
+ */
+final class GroupSnapshot {
+    private final Item[] items;
+
+    private GroupSnapshot(@NonNull Item[] items) {
+        this.items = items;
+    }
+
+    /**
+     * Take a snapshot in one walk through the groups, as {@link GroupUtils#flatten(Collection)}
+     * does, rather than asking each group for every item by position.
+     */
+    @NonNull
+    static GroupSnapshot of(@NonNull Collection<? extends Group> groups) {
+        return new GroupSnapshot(GroupUtils.flatten(groups));
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    @NonNull
+    Item getItem(int position) {
+        return items[position];
+    }
+}
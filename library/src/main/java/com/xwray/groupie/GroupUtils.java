@@ -2,7 +2,9 @@ package com.xwray.groupie;
 
 import androidx.annotation.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 class GroupUtils {
     @NonNull
@@ -21,6 +23,34 @@ class GroupUtils {
                 + previousPosition + " items");
     }
 
+    /**
+     * Get the item at a position which is about to be bound, letting each {@link NestedGroup} on
+     * the way to it know with {@link NestedGroup#getItemToBind(int)}.
+     */
+    @NonNull
+    static Item getItemToBind(Collection<? extends Group> groups, int position) {
+        int previousPosition = 0;
+
+        for (Group group : groups) {
+            int size = group.getItemCount();
+            if (size + previousPosition > position) {
+                return getItemToBind(group, position - previousPosition);
+            }
+            previousPosition += size;
+        }
+
+        throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                + previousPosition + " items");
+    }
+
+    @NonNull
+    static Item getItemToBind(@NonNull Group group, int position) {
+        if (group instanceof NestedGroup) {
+            return ((NestedGroup) group).getItemToBind(position);
+        }
+        return group.getItem(position);
+    }
+
     static int getItemCount(@NonNull Collection<? extends Group> groups) {
         int size = 0;
         for (Group group : groups) {
@@ -28,4 +58,99 @@ class GroupUtils {
         }
         return size;
     }
+
+    /**
+     * Copy the items of some groups into an array, in order. NestedGroups are walked through their
+     * child groups rather than asked for each item by position, which for most of them is a
+     * linear search, so this is linear in the number of items.
+     * <p>
+     * A NestedGroup may override {@link Group#getItemCount()} and {@link Group#getItem(int)} so that
+     * they disagree with its child groups. The walk through each top level group is checked
+     * against its item count, and if they don't match, that group is asked for each item by
+     * position instead, as the adapter does.
+     */
+    @NonNull
+    static Item[] flatten(@NonNull Collection<? extends Group> groups) {
+        int[] itemCounts = new int[groups.size()];
+        int size = 0;
+        int index = 0;
+        for (Group group : groups) {
+            itemCounts[index] = group.getItemCount();
+            size += itemCounts[index++];
+        }
+        Item[] items = new Item[size];
+        int position = 0;
+        index = 0;
+        for (Group group : groups) {
+            int end = position + itemCounts[index++];
+            if (flatten(group, items, position, end) != end) {
+                for (int i = position; i < end; i++) {
+                    items[i] = group.getItem(i - position);
+                }
+            }
+            position = end;
+        }
+        return items;
+    }
+
+    /**
+     * @return The position after the group's items, or -1 if they would go past the end
+     */
+    private static int flatten(@NonNull Group group, @NonNull Item[] items, int position, int end) {
+        if (group instanceof Item) {
+            if (position >= end) {
+                return -1;
+            }
+            items[position] = (Item) group;
+            return position + 1;
+        }
+        if (group instanceof NestedGroup) {
+            NestedGroup nestedGroup = (NestedGroup) group;
+            int groupCount = nestedGroup.getGroupCount();
+            for (int i = 0; i < groupCount && position >= 0; i++) {
+                position = flatten(nestedGroup.getGroup(i), items, position, end);
+            }
+            return position;
+        }
+        int itemCount = group.getItemCount();
+        if (position + itemCount > end) {
+            return -1;
+        }
+        for (int i = 0; i < itemCount; i++) {
+            items[position++] = group.getItem(i);
+        }
+        return position;
+    }
+
+    /**
+     * Check that a group added to a group of single Items is an Item.
+     *
+     * @param groupName The kind of group being added to, for the error message
+     */
+    @NonNull
+    static Item asItem(@NonNull Group group, @NonNull String groupName) {
+        if (!(group instanceof Item)) {
+            throw new IllegalArgumentException("A " + groupName + " can only contain Items, but got " + group);
+        }
+        return (Item) group;
+    }
+
+    @NonNull
+    static List<Item> asItems(@NonNull Collection<? extends Group> groups, @NonNull String groupName) {
+        List<Item> items = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            items.add(asItem(group, groupName));
+        }
+        return items;
+    }
+
+    /**
+     * Check that a replacement found by its id is the same item as the one it replaces.
+     */
+    static void checkSameAs(@NonNull Item oldItem, @NonNull Item replacement) {
+        if (!replacement.isSameAs(oldItem)) {
+            throw new IllegalArgumentException("Replacement " + replacement + " isn't the same as "
+                    + oldItem + ", which has its id");
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.xwray.groupie;
+
+import android.os.Build;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Optional {@link Trace} sections around Groupie's hot paths, so that creating and binding each
+ * item type, diffing and updating show up by name in systrace and Perfetto captures instead of as
+ * anonymous time inside RecyclerView.
+ * <p>
+ * Off by default. While off, each hot path only pays for reading a static field. While on, section
+ * names are only built when a trace is actually being captured on Android 10 and up; on older
+ * versions they are built whenever tracing is enabled here.
+ * <p>
+ * Sections are emitted on Android 4.3 and up, and async diffs are also shown as async slices
+ * spanning from {@link GroupAdapter#updateAsync(java.util.List)} to the dispatch of their result
+ * on Android 10 and up.
+ */
+public final class GroupieTrace {
+
+    /**
+     * Trace section names longer than this are rejected by {@link Trace}.
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static volatile boolean isEnabled = false;
+
+    private GroupieTrace() {
+    }
+
+    /**
+     * Turn Groupie's trace sections on or off for the whole process, e.g. only in debug or
+     * profileable builds.
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    private static boolean isTracing() {
+        if (!isEnabled || Build.VERSION.SDK_INT < 18) {
+            return false;
+        }
+        return Build.VERSION.SDK_INT < 29 || Trace.isEnabled();
+    }
+
+    /**
+     * Begin a section if tracing. Only call {@link #endSection()} if this returns true.
+     */
+    static boolean beginSection(@NonNull String name) {
+        if (!isTracing()) {
+            return false;
+        }
+        Trace.beginSection(truncate(name));
+        return true;
+    }
+
+    /**
+     * Begin a section named for an item's class if tracing. Only call {@link #endSection()} if
+     * this returns true.
+     */
+    static boolean beginSection(@NonNull String prefix, @NonNull Item item) {
+        if (!isTracing()) {
+            return false;
+        }
+        Trace.beginSection(truncate(prefix + nameOf(item.getClass())));
+        return true;
+    }
+
+    static void endSection() {
+        if (Build.VERSION.SDK_INT >= 18) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Begin an async slice, which may end on another thread. Only call
+     * {@link #endAsyncSection(String, int)} if this returns true.
+     */
+    static boolean beginAsyncSection(@NonNull String name, int cookie) {
+        if (!isEnabled || Build.VERSION.SDK_INT < 29 || !Trace.isEnabled()) {
+            return false;
+        }
+        Trace.beginAsyncSection(name, cookie);
+        return true;
+    }
+
+    static void endAsyncSection(@NonNull String name, int cookie) {
+        if (Build.VERSION.SDK_INT >= 29) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+
+    @NonNull
+    private static String nameOf(@NonNull Class<?> itemClass) {
+        String name = itemClass.getSimpleName();
+        // Anonymous classes have no simple name
+        return name.isEmpty() ? itemClass.getName() : name;
+    }
+
+    @NonNull
+    private static String truncate(@NonNull String name) {
+        return name.length() <= MAX_SECTION_NAME_LENGTH ? name : name.substring(0, MAX_SECTION_NAME_LENGTH);
+    }
+}
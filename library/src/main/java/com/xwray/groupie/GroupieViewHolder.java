@@ -11,6 +11,7 @@ public class GroupieViewHolder extends RecyclerView.ViewHolder {
     private Item item;
     private OnItemClickListener onItemClickListener;
     private OnItemLongClickListener onItemLongClickListener;
+    boolean deferredBindPending;
 
     private View.OnClickListener onClickListener = new View.OnClickListener() {
         @Override
@@ -0,0 +1,221 @@
+package com.xwray.groupie;
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Works out which items have been at least partly visible for long enough to count as an
+ * impression, for {@link GroupAdapter#setOnImpressionListener(OnImpressionListener, float, long)}.
+ * <p>
+ * Visibility is only measured in frames after the list scrolls or lays out, once per frame, from
+ * the LayoutManager's children. While items are waiting to count, one more frame is scheduled for
+ * when the first of them would, so nothing is polled while the list is idle.
+ * <p>
+ * Each visible item's id maps to when it was first seen, in two maps which swap every frame, so
+ * items which are no longer visible are forgotten without removing them and nothing is allocated
+ * per frame. An item counts once each time it becomes visible.
+ */
+class ImpressionTracker {
+
+    private static final int NOT_SEEN = -1;
+    private static final int COUNTED = -2;
+
+    @NonNull private final OnImpressionListener listener;
+    private final float minVisibleFraction;
+    private final long minVisibleMillis;
+
+    /**
+     * Ids of items visible in the last frame, to when they were first seen, in millis since
+     * {@link #baseMillis}, or {@link #COUNTED}
+     */
+    private LongIntHashMap visibleSince = new LongIntHashMap();
+    private LongIntHashMap nextVisibleSince = new LongIntHashMap();
+    private long baseMillis;
+    private long frameMillis;
+    private long nextDeadlineMillis;
+    private long[] impressions = new long[16];
+    private int impressionCount;
+
+    private final Rect visibleRect = new Rect();
+    @Nullable private RecyclerView recyclerView;
+    private boolean isScheduled = false;
+
+    private final Runnable measureFrame = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            measure();
+        }
+    };
+
+    private final Runnable deadline = new Runnable() {
+        @Override
+        public void run() {
+            schedule();
+        }
+    };
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            schedule();
+        }
+    };
+
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            schedule();
+        }
+    };
+
+    ImpressionTracker(@NonNull OnImpressionListener listener, float minVisibleFraction, long minVisibleMillis) {
+        this.listener = listener;
+        this.minVisibleFraction = minVisibleFraction;
+        this.minVisibleMillis = minVisibleMillis;
+    }
+
+    void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+        recyclerView.getViewTreeObserver().addOnGlobalLayoutListener(layoutListener);
+        schedule();
+    }
+
+    void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (this.recyclerView != recyclerView) {
+            return;
+        }
+        release();
+    }
+
+    /**
+     * Stop tracking. Items waiting to count are forgotten.
+     */
+    void release() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            recyclerView.getViewTreeObserver().removeOnGlobalLayoutListener(layoutListener);
+            recyclerView.removeCallbacks(measureFrame);
+            recyclerView.removeCallbacks(deadline);
+            recyclerView = null;
+        }
+        isScheduled = false;
+        visibleSince.clear();
+    }
+
+    private void schedule() {
+        if (isScheduled || recyclerView == null) {
+            return;
+        }
+        isScheduled = true;
+        ViewCompat.postOnAnimation(recyclerView, measureFrame);
+    }
+
+    private void measure() {
+        RecyclerView recyclerView = this.recyclerView;
+        RecyclerView.LayoutManager layoutManager = recyclerView != null ? recyclerView.getLayoutManager() : null;
+        if (layoutManager == null) {
+            return;
+        }
+        beginFrame(SystemClock.uptimeMillis());
+        if (recyclerView.isShown()) {
+            for (int i = 0; i < layoutManager.getChildCount(); i++) {
+                View child = layoutManager.getChildAt(i);
+                if (child == null || recyclerView.getChildAdapterPosition(child) == RecyclerView.NO_POSITION) {
+                    // Being removed
+                    continue;
+                }
+                RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(child);
+                if (!(holder instanceof GroupieViewHolder)) {
+                    continue;
+                }
+                Item item = ((GroupieViewHolder) holder).getItem();
+                if (item != null) {
+                    onItemVisible(item.getId(), getVisibleFraction(child));
+                }
+            }
+        }
+        endFrame();
+
+        recyclerView.removeCallbacks(deadline);
+        if (nextDeadlineMillis != Long.MAX_VALUE) {
+            recyclerView.postDelayed(deadline, Math.max(0, nextDeadlineMillis - frameMillis));
+        }
+    }
+
+    private float getVisibleFraction(@NonNull View child) {
+        int area = child.getWidth() * child.getHeight();
+        if (area == 0 || !child.getLocalVisibleRect(visibleRect)) {
+            return 0f;
+        }
+        return (float) (visibleRect.width() * visibleRect.height()) / area;
+    }
+
+    @VisibleForTesting
+    void beginFrame(long nowMillis) {
+        if (visibleSince.size() == 0) {
+            // Keeps times relative to a recent base, so they fit in an int
+            baseMillis = nowMillis;
+        }
+        frameMillis = nowMillis;
+        nextDeadlineMillis = Long.MAX_VALUE;
+        impressionCount = 0;
+        nextVisibleSince.clear(visibleSince.size());
+    }
+
+    @VisibleForTesting
+    void onItemVisible(long id, float visibleFraction) {
+        if (visibleFraction < minVisibleFraction || nextVisibleSince.containsKey(id)) {
+            return;
+        }
+        int now = (int) (frameMillis - baseMillis);
+        int since = visibleSince.get(id, NOT_SEEN);
+        if (since == COUNTED) {
+            nextVisibleSince.put(id, COUNTED);
+            return;
+        }
+        if (since == NOT_SEEN) {
+            since = now;
+        }
+        if (now - since >= minVisibleMillis) {
+            nextVisibleSince.put(id, COUNTED);
+            addImpression(id);
+        } else {
+            nextVisibleSince.put(id, since);
+            nextDeadlineMillis = Math.min(nextDeadlineMillis, baseMillis + since + minVisibleMillis);
+        }
+    }
+
+    @VisibleForTesting
+    void endFrame() {
+        LongIntHashMap previous = visibleSince;
+        visibleSince = nextVisibleSince;
+        nextVisibleSince = previous;
+        if (impressionCount > 0) {
+            listener.onImpressions(impressions, impressionCount);
+        }
+    }
+
+    @VisibleForTesting
+    long getNextDeadlineMillis() {
+        return nextDeadlineMillis;
+    }
+
+    private void addImpression(long id) {
+        if (impressionCount == impressions.length) {
+            long[] grown = new long[impressions.length * 2];
+            System.arraycopy(impressions, 0, grown, 0, impressionCount);
+            impressions = grown;
+        }
+        impressions[impressionCount++] = id;
+    }
+}
@@ -1,9 +1,12 @@
 package com.xwray.groupie;
 
+import android.content.Context;
+
 import androidx.annotation.CallSuper;
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 
@@ -63,6 +66,55 @@ public abstract class Item<VH extends GroupieViewHolder> implements Group, SpanS
         bind(viewHolder, position);
     }
 
+    /**
+     * Whether this item splits its binding into two phases. Return true for items which are
+     * expensive to bind (charts, rich text), so that a fling binding several of them doesn't
+     * drop frames.
+     * <p>
+     * {@link #bind(GroupieViewHolder, int)} then runs as usual and should only do the cheap work
+     * needed to show something straight away. The adapter calls
+     * {@link #bindDeferred(GroupieViewHolder, int)} on a later frame, within a per-frame time
+     * budget, starting with the view holders closest to the visible rows.
+     *
+     * @return Whether {@link #bindDeferred(GroupieViewHolder, int)} should be scheduled after each full bind
+     * @see GroupAdapter#setDeferredBindFrameBudgetMillis(int)
+     */
+    public boolean hasDeferredBind() {
+        return false;
+    }
+
+    /**
+     * The expensive second phase of binding, for items which return true from
+     * {@link #hasDeferredBind()}. Runs on the main thread in a frame after
+     * {@link #bind(GroupieViewHolder, int)}, and is skipped if the view holder is recycled first.
+     * It isn't scheduled for binds with payloads.
+     *
+     * @param viewHolder The ViewHolder to finish binding
+     * @param position The adapter position
+     */
+    public void bindDeferred(@NonNull VH viewHolder, int position) {
+    }
+
+    /**
+     * Do expensive preparation for binding, such as text layout, string formatting or measuring,
+     * off the main thread. Store the results on the item and apply them in
+     * {@link #bind(GroupieViewHolder, int)}.
+     * <p>
+     * {@link GroupAdapter#updateAsync(List)} calls this on its background thread for items which
+     * are new or whose contents changed, after diffing and before the result is dispatched, while
+     * the adapter is attached to a RecyclerView. It isn't called when the update is applied
+     * straight away rather than diffed: the first update of an empty adapter, and updates while
+     * {@link GroupAdapter#setPausesUpdatesWhileDetached(boolean) paused}. Other ways of adding
+     * items don't call it either, so bind must still work if it never ran.
+     * <p>
+     * Don't touch views or shared mutable state here.
+     *
+     * @param context The context of the RecyclerView the adapter is attached to
+     */
+    @WorkerThread
+    public void precompute(@NonNull Context context) {
+    }
+
     /**
      * Do any cleanup required for the viewholder to be reused.
      *
@@ -220,4 +272,17 @@ public abstract class Item<VH extends GroupieViewHolder> implements Group, SpanS
     public Object getChangePayload(@NonNull Item newItem) {
         return null;
     }
+
+    /**
+     * Compare the fields this item declares with a new version of it, so that only views for the
+     * fields which changed are rebound. Give each field its own bit, and return the bits for those
+     * which differ in the new item; they are sent as a {@link ChangeMask} payload.
+     *
+     * The default implementation declares no fields, so {@link #getChangePayload(Item)} is used.
+     *
+     * @return The bits of the fields which changed, or 0 to use {@link #getChangePayload(Item)}
+     */
+    public long getChangedFields(@NonNull Item newItem) {
+        return 0L;
+    }
 }
@@ -0,0 +1,187 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A circular array of Items, for groups whose children are all single Items. Adding or removing
+ * at either end costs O(1) per item, and adding or removing in the middle moves whichever side
+ * of the position is shorter. The array grows as needed.
+ * <p>
+ * Each item's position is indexed, so finding it, e.g. to pass on a change notification from it,
+ * is O(1) rather than a scan. Items are given sequence numbers in order, and an item's position
+ * is its sequence number less that of the first item, so adding or removing items only updates
+ * the numbers of the items on the side which moves.
+ * <p>
+ * Each item can only be held once.
+ */
+final class ItemRingBuffer {
+
+    private Item[] slots;
+    /**
+     * The slot of the first item
+     */
+    private int head = 0;
+    private int size = 0;
+    /**
+     * The sequence number of the first item
+     */
+    private long headSequence = 0;
+    private final IdentityHashMap<Item, Long> sequences = new IdentityHashMap<>();
+
+    ItemRingBuffer(int capacity) {
+        slots = new Item[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    @NonNull
+    Item get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                    + size + " items");
+        }
+        return slots[slot(position)];
+    }
+
+    /**
+     * @return The position of the item, or -1 if it isn't held
+     */
+    int indexOf(@NonNull Group group) {
+        Long sequence = sequences.get(group);
+        return sequence == null ? -1 : (int) (sequence - headSequence);
+    }
+
+    void add(@NonNull Item item) {
+        ensureCapacity(size + 1);
+        place(size++, item);
+    }
+
+    /**
+     * Insert items at a position, opening a gap by moving whichever side of it is shorter.
+     */
+    void addAll(int position, @NonNull List<Item> items) {
+        if (position < 0 || position > size) {
+            throw new IndexOutOfBoundsException("Can't insert at " + position + " when there are "
+                    + size + " items");
+        }
+        int count = items.size();
+        ensureCapacity(size + count);
+        if (position < size - position) {
+            head -= count;
+            if (head < 0) {
+                head += slots.length;
+            }
+            headSequence -= count;
+            for (int i = 0; i < position; i++) {
+                place(i, slots[slot(i + count)]);
+            }
+        } else {
+            for (int i = size - 1; i >= position; i--) {
+                place(i + count, slots[slot(i)]);
+            }
+        }
+        size += count;
+        for (int i = 0; i < count; i++) {
+            place(position + i, items.get(i));
+        }
+    }
+
+    /**
+     * Remove the item at a position, closing the gap by moving whichever side of it is shorter.
+     */
+    @NonNull
+    Item remove(int position) {
+        Item removed = get(position);
+        sequences.remove(removed);
+        if (position < size / 2) {
+            for (int i = position; i > 0; i--) {
+                place(i, slots[slot(i - 1)]);
+            }
+            slots[head] = null;
+            head = slot(1);
+            headSequence++;
+        } else {
+            for (int i = position; i < size - 1; i++) {
+                place(i, slots[slot(i + 1)]);
+            }
+            slots[slot(size - 1)] = null;
+        }
+        size--;
+        return removed;
+    }
+
+    /**
+     * Remove the first items. Only they are touched, so this is O(count).
+     */
+    void removeFirst(int count) {
+        for (int i = 0; i < count; i++) {
+            sequences.remove(slots[head]);
+            slots[head] = null;
+            head = slot(1);
+        }
+        headSequence += count;
+        size -= count;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            slots[slot(i)] = null;
+        }
+        sequences.clear();
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Change the capacity, which must be at least the size.
+     */
+    void setCapacity(int capacity) {
+        Item[] resized = new Item[capacity];
+        for (int i = 0; i < size; i++) {
+            resized[i] = slots[slot(i)];
+        }
+        slots = resized;
+        head = 0;
+    }
+
+    /**
+     * @return A copy of the items, in order
+     */
+    @NonNull
+    List<Item> toList() {
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(slots[slot(i)]);
+        }
+        return items;
+    }
+
+    /**
+     * Put an item at a position, indexing it there. The caller updates the size.
+     */
+    private void place(int position, @NonNull Item item) {
+        slots[slot(position)] = item;
+        sequences.put(item, headSequence + position);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > slots.length) {
+            setCapacity(Math.max(capacity, slots.length * 2));
+        }
+    }
+
+    private int slot(int position) {
+        int slot = head + position;
+        return slot >= slots.length ? slot - slots.length : slot;
+    }
+}
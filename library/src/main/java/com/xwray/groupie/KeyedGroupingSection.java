@@ -0,0 +1,341 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group which buckets Items under headers by a key, e.g. by date or by first letter, keeping
+ * one {@link Section} per key in sorted key order.
+ * <p>
+ * Regrouping a whole list into new Sections and diffing it on every change is O(n). A
+ * KeyedGroupingSection instead routes each added, removed or updated item to its bucket by binary
+ * search over the keys, and keeps running item counts per bucket, so each change costs
+ * O(log buckets) to place plus the bucket's own work. A bucket, with a header from the
+ * {@link HeaderFactory}, is created when the first item with its key is added and dropped when
+ * its last item is removed, each with a single notification.
+ * <p>
+ * Items appear within their bucket in the order they were added.
+ *
+ * @param <K> The type of key items are grouped by
+ */
+public class KeyedGroupingSection<K> extends NestedGroup {
+
+    public interface KeyFunction<K> {
+        @NonNull
+        K getKey(@NonNull Item item);
+    }
+
+    public interface HeaderFactory<K> {
+        @NonNull
+        Group createHeader(@NonNull K key);
+    }
+
+    private final KeyFunction<K> keyFunction;
+    private final Comparator<? super K> keyComparator;
+    private final HeaderFactory<K> headerFactory;
+    private final ArrayList<Bucket> buckets = new ArrayList<>();
+    /**
+     * The item count of each bucket, including its header.
+     */
+    private final FenwickTree bucketItemCounts = new FenwickTree();
+    private final Map<Item, Bucket> itemBuckets = new IdentityHashMap<>();
+
+    public KeyedGroupingSection(@NonNull KeyFunction<K> keyFunction,
+                                @NonNull Comparator<? super K> keyComparator,
+                                @NonNull HeaderFactory<K> headerFactory) {
+        this.keyFunction = keyFunction;
+        this.keyComparator = keyComparator;
+        this.headerFactory = headerFactory;
+    }
+
+    /**
+     * Add an item to the end of the bucket for its key, creating the bucket if needed.
+     */
+    @Override
+    public void add(@NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "KeyedGroupingSection");
+        K key = keyFunction.getKey(item);
+        int index = indexOfKey(key);
+        if (index >= 0) {
+            Bucket bucket = buckets.get(index);
+            itemBuckets.put(item, bucket);
+            bucket.add(item);
+            return;
+        }
+
+        index = -(index + 1);
+        Bucket bucket = new Bucket(key, headerFactory.createHeader(key));
+        // Filled before it is attached, so the header and item are notified together
+        bucket.add(item);
+        itemBuckets.put(item, bucket);
+        buckets.add(index, bucket);
+        bucketItemCounts.insert(index, bucket.getItemCount());
+        super.add(bucket);
+        notifyItemRangeInserted(bucketItemCounts.prefixSum(index), bucket.getItemCount());
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            add(group);
+        }
+    }
+
+    /**
+     * Not supported, since a KeyedGroupingSection decides where its items go.
+     */
+    @Override
+    public void add(int position, @NonNull Group group) {
+        throw new UnsupportedOperationException("A KeyedGroupingSection places items by key; use add(Group)");
+    }
+
+    /**
+     * Not supported, since a KeyedGroupingSection decides where its items go.
+     */
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("A KeyedGroupingSection places items by key; use addAll(Collection)");
+    }
+
+    /**
+     * Remove an item from its bucket, dropping the bucket and its header if it is now empty.
+     */
+    @Override
+    public void remove(@NonNull Group group) {
+        Bucket bucket = group instanceof Item ? itemBuckets.remove(group) : null;
+        if (bucket == null) {
+            return;
+        }
+        if (bucket.size > 1) {
+            bucket.remove(group);
+            return;
+        }
+
+        int index = indexOfKey(bucket.key);
+        int positionStart = bucketItemCounts.prefixSum(index);
+        int itemCount = bucketItemCounts.get(index);
+        super.remove(bucket);
+        bucket.remove(group);
+        buckets.remove(index);
+        bucketItemCounts.remove(index);
+        notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> items = GroupUtils.asItems(groups, "KeyedGroupingSection");
+        for (Bucket bucket : buckets) {
+            bucket.unregisterGroupDataObserver(this);
+        }
+        buckets.clear();
+        bucketItemCounts.clear();
+        itemBuckets.clear();
+        for (Item item : items) {
+            K key = keyFunction.getKey(item);
+            int index = indexOfKey(key);
+            Bucket bucket;
+            if (index >= 0) {
+                bucket = buckets.get(index);
+            } else {
+                bucket = new Bucket(key, headerFactory.createHeader(key));
+                buckets.add(-(index + 1), bucket);
+            }
+            bucket.add(item);
+            itemBuckets.put(item, bucket);
+        }
+        for (Bucket bucket : buckets) {
+            bucketItemCounts.append(bucket.getItemCount());
+            bucket.registerGroupDataObserver(this);
+        }
+        notifyDataSetInvalidated();
+    }
+
+    /**
+     * Rebind an item whose data has changed, first moving it to the end of another bucket if its
+     * key has changed.
+     */
+    public void update(@NonNull Item item) {
+        Bucket bucket = itemBuckets.get(item);
+        if (bucket == null) {
+            return;
+        }
+        if (keyComparator.compare(bucket.key, keyFunction.getKey(item)) == 0) {
+            item.notifyChanged();
+        } else {
+            remove(item);
+            add(item);
+        }
+    }
+
+    /**
+     * @return A copy of the items with a key, in the order they were added and without their
+     * header, or an empty list if there are none. Change them through this section.
+     */
+    @NonNull
+    public List<Item> getItems(@NonNull K key) {
+        int index = indexOfKey(key);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<Group> groups = buckets.get(index).getGroups();
+        List<Item> items = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            items.add((Item) group);
+        }
+        return items;
+    }
+
+    @Override
+    public int getItemCount() {
+        return bucketItemCounts.total();
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        int index = bucketItemCounts.indexOf(position);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                    + getItemCount() + " items");
+        }
+        return buckets.get(index).getItem(position - bucketItemCounts.prefixSum(index));
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        Bucket bucket = itemBuckets.get(item);
+        if (bucket == null) {
+            // Headers aren't tracked, so look for them the slow way
+            return super.getPosition(item);
+        }
+        int position = bucket.getPosition(item);
+        return position < 0 ? -1 : getItemCountBeforeGroup(bucket) + position;
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return buckets.get(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public int getPosition(@NonNull Group group) {
+        if (!(group instanceof KeyedGroupingSection.Bucket)) {
+            return -1;
+        }
+        //noinspection unchecked
+        int index = indexOfKey(((Bucket) group).key);
+        return index >= 0 && buckets.get(index) == group ? index : -1;
+    }
+
+    @Override
+    protected int getItemCountBeforeGroup(int groupIndex) {
+        return bucketItemCounts.prefixSum(groupIndex);
+    }
+
+    @Override
+    public void onItemInserted(@NonNull Group group, int position) {
+        updateItemCount(group);
+        super.onItemInserted(group, position);
+    }
+
+    @Override
+    public void onItemRemoved(@NonNull Group group, int position) {
+        updateItemCount(group);
+        super.onItemRemoved(group, position);
+    }
+
+    @Override
+    public void onItemRangeInserted(@NonNull Group group, int positionStart, int itemCount) {
+        updateItemCount(group);
+        super.onItemRangeInserted(group, positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(@NonNull Group group, int positionStart, int itemCount) {
+        updateItemCount(group);
+        super.onItemRangeRemoved(group, positionStart, itemCount);
+    }
+
+    @Override
+    public void onDataSetInvalidated() {
+        for (int i = 0; i < buckets.size(); i++) {
+            bucketItemCounts.set(i, buckets.get(i).getItemCount());
+        }
+        super.onDataSetInvalidated();
+    }
+
+    private void updateItemCount(@NonNull Group group) {
+        int index = getPosition(group);
+        if (index >= 0) {
+            bucketItemCounts.set(index, group.getItemCount());
+        }
+    }
+
+    /**
+     * @return The index of the bucket with the key, or {@code -(insertion index) - 1} if there
+     * isn't one, as with {@link java.util.Collections#binarySearch(List, Object)}
+     */
+    private int indexOfKey(@NonNull K key) {
+        int low = 0;
+        int high = buckets.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keyComparator.compare(buckets.get(middle).key, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private final class Bucket extends Section {
+        final K key;
+        @NonNull private final Group header;
+        int size = 0;
+
+        Bucket(@NonNull K key, @NonNull Group header) {
+            super(header);
+            this.key = key;
+            this.header = header;
+        }
+
+        @Override
+        public void add(@NonNull Group group) {
+            size++;
+            super.add(group);
+        }
+
+        @Override
+        public void remove(@NonNull Group group) {
+            if (group == header || getPosition(group) < 0) {
+                return;
+            }
+            size--;
+            super.remove(group);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.xwray.groupie;
+
+import java.util.Arrays;
+
+/**
+ * A set of longs using open addressing, so that checking many Item ids doesn't box each one.
+ * Clearing keeps the table, so one instance can be reused for repeated checks.
+ */
+final class LongHashSet {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private boolean[] used;
+    private int size;
+
+    LongHashSet() {
+        this(16);
+    }
+
+    LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the value was added, false if it was already present
+     */
+    boolean add(long value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int index = hash(value) & mask;
+        while (used[index]) {
+            if (keys[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        keys[index] = value;
+        size++;
+        return true;
+    }
+
+    boolean contains(long value) {
+        int mask = keys.length - 1;
+        int index = hash(value) & mask;
+        while (used[index]) {
+            if (keys[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Clear the set and make sure it can hold the given number of values without resizing.
+     */
+    void clear(int expectedSize) {
+        int tableSize = tableSizeFor(expectedSize);
+        if (tableSize > keys.length) {
+            allocate(tableSize);
+        } else {
+            clear();
+        }
+    }
+
+    private void resize(int tableSize) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                add(oldKeys[i]);
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        used = new boolean[tableSize];
+        size = 0;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int minimum = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        return Math.max(16, Integer.highestOneBit(minimum - 1) << 1);
+    }
+
+    private static int hash(long value) {
+        // Fibonacci hashing, so that sequential ids don't cluster in the table
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
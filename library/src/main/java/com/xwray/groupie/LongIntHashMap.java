@@ -0,0 +1,125 @@
+package com.xwray.groupie;
+
+import java.util.Arrays;
+
+/**
+ * A map from longs to ints using open addressing, so that indexing many Item ids doesn't box
+ * each one. Clearing keeps the table, so one instance can be reused as an index is rebuilt.
+ */
+final class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Map a key to a value, replacing any value it was already mapped to.
+     */
+    void put(long key, int value) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * @return The value the key is mapped to, or {@code missingValue} if it isn't in the map
+     */
+    int get(long key, int missingValue) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    boolean containsKey(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Clear the map and make sure it can hold the given number of keys without resizing.
+     */
+    void clear(int expectedSize) {
+        int tableSize = tableSizeFor(expectedSize);
+        if (tableSize > keys.length) {
+            allocate(tableSize);
+        } else {
+            clear();
+        }
+    }
+
+    private void resize(int tableSize) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        used = new boolean[tableSize];
+        size = 0;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int minimum = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        return Math.max(16, Integer.highestOneBit(minimum - 1) << 1);
+    }
+
+    private static int hash(long value) {
+        // Fibonacci hashing, so that sequential ids don't cluster in the table
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
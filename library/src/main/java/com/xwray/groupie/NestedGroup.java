@@ -19,6 +19,9 @@ public abstract class NestedGroup implements Group, GroupDataObserver {
     private final GroupDataObservable observable = new GroupDataObservable();
 
     public int getItemCount() {
+        if (NotificationCounters.enabled) {
+            NotificationCounters.onItemCountCall();
+        }
         int size = 0;
         for (int i = 0; i < getGroupCount(); i++) {
             Group group = getGroup(i);
@@ -33,6 +36,9 @@ public abstract class NestedGroup implements Group, GroupDataObserver {
     }
 
     protected int getItemCountBeforeGroup(final int groupIndex) {
+        if (NotificationCounters.enabled) {
+            NotificationCounters.onPositionWalk(groupIndex);
+        }
         int size = 0;
         for (int i = 0; i < groupIndex; i++) {
             final Group currentGroup = getGroup(i);
@@ -63,7 +69,29 @@ public abstract class NestedGroup implements Group, GroupDataObserver {
                 + getItemCount() + " items");
     }
 
-    public final int getPosition(@NonNull Item item) {
+    /**
+     * Get an item which a {@link GroupAdapter} is about to bind. By default this is the same as
+     * {@link #getItem(int)}, passed down through the child groups; override it in groups which
+     * need to know which of their positions are being bound.
+     */
+    @NonNull
+    public Item getItemToBind(int position) {
+        int previousPosition = 0;
+
+        for (int i = 0; i < getGroupCount(); i++) {
+            Group group = getGroup(i);
+            int size = group.getItemCount();
+            if (size + previousPosition > position) {
+                return GroupUtils.getItemToBind(group, position - previousPosition);
+            }
+            previousPosition += size;
+        }
+
+        throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                + getItemCount() + " items");
+    }
+
+    public int getPosition(@NonNull Item item) {
         int previousPosition = 0;
 
         for (int i = 0; i < getGroupCount(); i++) {
@@ -272,70 +300,190 @@ public abstract class NestedGroup implements Group, GroupDataObserver {
         observable.onDataSetInvalidated();
     }
 
+    /**
+     * Tell the groups above and the adapter that items were swapped for new instances with the
+     * same content. Nothing changes for RecyclerView, so this isn't a change notification, but
+     * anything holding on to the old instances must let go of them.
+     */
+    void notifyItemInstancesReplaced() {
+        observable.onItemInstancesReplaced();
+    }
+
     /**
      * Iterate in reverse order in case any observer decides to remove themself from the list
-     * in their callback
+     * in their callback. Notifications are only counted while an adapter collects stats, and
+     * otherwise go straight to the observers.
      */
     private static class GroupDataObservable {
         final List<GroupDataObserver> observers = new ArrayList<>();
 
         void onItemRangeChanged(Group group, int positionStart, int itemCount) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemRangeChanged(group, positionStart, itemCount);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeChanged(group, positionStart, itemCount);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_RANGE_CHANGED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeChanged(group, positionStart, itemCount);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemRangeChanged(Group group, int positionStart, int itemCount, Object payload) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemRangeChanged(group, positionStart, itemCount, payload);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeChanged(group, positionStart, itemCount, payload);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_RANGE_CHANGED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeChanged(group, positionStart, itemCount, payload);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemInserted(Group group, int position) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemInserted(group, position);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemInserted(group, position);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_INSERTED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemInserted(group, position);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemChanged(Group group, int position) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemChanged(group, position);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemChanged(group, position);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_CHANGED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemChanged(group, position);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemChanged(Group group, int position, Object payload) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemChanged(group, position, payload);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemChanged(group, position, payload);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_CHANGED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemChanged(group, position, payload);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemRemoved(Group group, int position) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemRemoved(group, position);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRemoved(group, position);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_REMOVED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRemoved(group, position);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemRangeInserted(Group group, int positionStart, int itemCount) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemRangeInserted(group, positionStart, itemCount);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeInserted(group, positionStart, itemCount);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_RANGE_INSERTED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeInserted(group, positionStart, itemCount);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemRangeRemoved(Group group, int positionStart, int itemCount) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemRangeRemoved(group, positionStart, itemCount);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeRemoved(group, positionStart, itemCount);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_RANGE_REMOVED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemRangeRemoved(group, positionStart, itemCount);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onItemMoved(Group group, int fromPosition, int toPosition) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onItemMoved(group, fromPosition, toPosition);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemMoved(group, fromPosition, toPosition);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_ITEM_MOVED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onItemMoved(group, fromPosition, toPosition);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
         void onChanged(Group group) {
-            for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onChanged(group);
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onChanged(group);
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(group, NotificationStats.TYPE_CHANGED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onChanged(group);
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
 
@@ -355,9 +503,34 @@ public abstract class NestedGroup implements Group, GroupDataObserver {
             }
         }
 
-        void onDataSetInvalidated() {
+        /**
+         * Only groups and adapters hold on to items, so other observers aren't told
+         */
+        void onItemInstancesReplaced() {
             for (int i = observers.size() - 1; i >= 0; i--) {
-                observers.get(i).onDataSetInvalidated();
+                GroupDataObserver observer = observers.get(i);
+                if (observer instanceof NestedGroup) {
+                    ((NestedGroup) observer).notifyItemInstancesReplaced();
+                } else if (observer instanceof GroupAdapter) {
+                    ((GroupAdapter<?>) observer).onItemInstancesReplaced();
+                }
+            }
+        }
+
+        void onDataSetInvalidated() {
+            if (!NotificationCounters.enabled) {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onDataSetInvalidated();
+                }
+                return;
+            }
+            NotificationCounters.beginNotification(null, NotificationStats.TYPE_DATA_SET_INVALIDATED);
+            try {
+                for (int i = observers.size() - 1; i >= 0; i--) {
+                    observers.get(i).onDataSetInvalidated();
+                }
+            } finally {
+                NotificationCounters.endNotification();
             }
         }
     }
@@ -0,0 +1,130 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts what the notification currently travelling up a group tree costs. Groups don't know
+ * which adapter they belong to, so an adapter collecting stats which receives the notification
+ * registers with {@link #onAdapterNotification(NotificationDiagnostics)}, and is given the counts
+ * once the notification has finished propagating. Counts for notifications which reached no such
+ * adapter are dropped, so adapters only see the cost of their own notifications.
+ * <p>
+ * Counting is only {@link #enabled} while at least one adapter has a stats listener, so callers
+ * check that flag before counting and pay a single branch otherwise. Like the groups themselves,
+ * only used from the main thread.
+ */
+final class NotificationCounters {
+
+    /**
+     * Whether any adapter is collecting stats. Read directly on the hot paths.
+     */
+    static boolean enabled;
+    private static int enabledCount;
+
+    private static final long[] groupNotifications = new long[NotificationStats.TYPE_COUNT];
+    private static long positionWalks;
+    private static long positionWalkSteps;
+    private static long itemCountCalls;
+
+    /**
+     * How many groups are currently passing on a notification, and the group which started it.
+     */
+    private static int propagationDepth;
+    @Nullable private static Group propagationOrigin;
+    /**
+     * The adapters collecting stats which the current notification has reached, usually one
+     */
+    private static final List<NotificationDiagnostics> recipients = new ArrayList<>(1);
+
+    private NotificationCounters() {
+    }
+
+    /**
+     * Called when an adapter starts collecting stats. Always balance with {@link #disable()}.
+     */
+    static void enable() {
+        enabledCount++;
+        enabled = true;
+    }
+
+    static void disable() {
+        if (enabledCount > 0) {
+            enabledCount--;
+        }
+        enabled = enabledCount > 0;
+    }
+
+    /**
+     * Count a group notification about to be sent to its observers. Only called while
+     * {@link #enabled}, and always followed by {@link #endNotification()} once the observers have
+     * been called, even if counting was disabled in the meantime.
+     */
+    static void beginNotification(@Nullable Group group, int type) {
+        groupNotifications[type]++;
+        if (propagationDepth++ == 0) {
+            propagationOrigin = group;
+        }
+    }
+
+    static void endNotification() {
+        if (--propagationDepth == 0) {
+            for (int i = 0; i < recipients.size(); i++) {
+                recipients.get(i).addPropagationCounts(groupNotifications, positionWalks, positionWalkSteps, itemCountCalls);
+            }
+            recipients.clear();
+            propagationOrigin = null;
+            clearCounts();
+        }
+    }
+
+    static boolean isPropagating() {
+        return propagationDepth > 0;
+    }
+
+    @Nullable
+    static Group getPropagationOrigin() {
+        return propagationOrigin;
+    }
+
+    /**
+     * Only called while {@link #enabled}
+     */
+    static void onPositionWalk(int steps) {
+        if (isPropagating()) {
+            positionWalks++;
+            positionWalkSteps += steps;
+        }
+    }
+
+    /**
+     * Only called while {@link #enabled}
+     */
+    static void onItemCountCall() {
+        if (isPropagating()) {
+            itemCountCalls++;
+        }
+    }
+
+    /**
+     * Called when an adapter collecting stats passes a notification on to RecyclerView, so that
+     * it is given the cost of the notification which caused it, if any.
+     */
+    static void onAdapterNotification(@NonNull NotificationDiagnostics diagnostics) {
+        if (isPropagating() && !recipients.contains(diagnostics)) {
+            recipients.add(diagnostics);
+        }
+    }
+
+    private static void clearCounts() {
+        for (int type = 0; type < NotificationStats.TYPE_COUNT; type++) {
+            groupNotifications[type] = 0;
+        }
+        positionWalks = 0;
+        positionWalkSteps = 0;
+        itemCountCalls = 0;
+    }
+}
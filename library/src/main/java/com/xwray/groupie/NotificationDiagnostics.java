@@ -0,0 +1,179 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Collects {@link NotificationStats} for one {@link GroupAdapter} and reports them once per frame
+ * in which the adapter sent any notifications.
+ */
+class NotificationDiagnostics {
+
+    private static final String GROUPIE_PACKAGE = "com.xwray.groupie.";
+    private static final String[] PLATFORM_PACKAGES = {
+            "androidx.recyclerview.", "java.", "javax.", "jdk.", "sun.", "android.", "dalvik."
+    };
+
+    @NonNull private final OnNotificationStatsListener listener;
+    private final boolean captureCallSites;
+
+    private long[] adapterNotifications = new long[NotificationStats.TYPE_COUNT];
+    private Map<Group, Integer> notificationsByOrigin = new IdentityHashMap<>();
+    private Map<String, Integer> notificationsByCallSite = new HashMap<>();
+    private long[] groupNotifications = new long[NotificationStats.TYPE_COUNT];
+    private long positionWalks;
+    private long positionWalkSteps;
+    private long itemCountCalls;
+    private boolean hasPendingStats = false;
+
+    @Nullable private RecyclerView recyclerView;
+    private boolean isScheduled = false;
+
+    private final Runnable reportFrame = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            report();
+        }
+    };
+
+    NotificationDiagnostics(@NonNull OnNotificationStatsListener listener, boolean captureCallSites) {
+        this.listener = listener;
+        this.captureCallSites = captureCallSites;
+        NotificationCounters.enable();
+    }
+
+    /**
+     * Stop counting. Stats not yet reported are dropped. Call once, as counting stays enabled
+     * until every adapter which collected stats has released them.
+     */
+    void release() {
+        NotificationCounters.disable();
+        if (recyclerView != null) {
+            recyclerView.removeCallbacks(reportFrame);
+        }
+        isScheduled = false;
+    }
+
+    void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        if (hasPendingStats) {
+            schedule();
+        }
+    }
+
+    void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        if (this.recyclerView != recyclerView) {
+            return;
+        }
+        recyclerView.removeCallbacks(reportFrame);
+        isScheduled = false;
+        this.recyclerView = null;
+    }
+
+    /**
+     * Count a notification the adapter is about to pass on to RecyclerView.
+     */
+    void onAdapterNotification(int type) {
+        adapterNotifications[type]++;
+        NotificationCounters.onAdapterNotification(this);
+        Group origin = NotificationCounters.getPropagationOrigin();
+        if (origin != null) {
+            increment(notificationsByOrigin, origin);
+        }
+        if (captureCallSites) {
+            increment(notificationsByCallSite, findCallSite());
+        }
+        hasPendingStats = true;
+        schedule();
+    }
+
+    /**
+     * Called by {@link NotificationCounters} with what a notification which reached this adapter
+     * cost to propagate
+     */
+    void addPropagationCounts(long[] groupNotifications, long positionWalks, long positionWalkSteps,
+                              long itemCountCalls) {
+        for (int type = 0; type < NotificationStats.TYPE_COUNT; type++) {
+            this.groupNotifications[type] += groupNotifications[type];
+        }
+        this.positionWalks += positionWalks;
+        this.positionWalkSteps += positionWalkSteps;
+        this.itemCountCalls += itemCountCalls;
+    }
+
+    private void schedule() {
+        if (isScheduled || recyclerView == null) {
+            // Stats keep accumulating until the adapter is attached
+            return;
+        }
+        isScheduled = true;
+        ViewCompat.postOnAnimation(recyclerView, reportFrame);
+    }
+
+    @VisibleForTesting
+    void report() {
+        if (!hasPendingStats) {
+            return;
+        }
+        NotificationStats stats = new NotificationStats(
+                adapterNotifications,
+                groupNotifications,
+                positionWalks,
+                positionWalkSteps,
+                itemCountCalls,
+                notificationsByOrigin,
+                notificationsByCallSite);
+
+        // The stats own the old arrays and maps now
+        adapterNotifications = new long[NotificationStats.TYPE_COUNT];
+        groupNotifications = new long[NotificationStats.TYPE_COUNT];
+        positionWalks = 0;
+        positionWalkSteps = 0;
+        itemCountCalls = 0;
+        notificationsByOrigin = new IdentityHashMap<>();
+        notificationsByCallSite = new HashMap<>();
+        hasPendingStats = false;
+
+        listener.onFrameNotificationStats(stats);
+    }
+
+    /**
+     * @return The first frame on the current stack outside Groupie, RecyclerView and the platform
+     */
+    @NonNull
+    private static String findCallSite() {
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+        for (StackTraceElement element : stackTrace) {
+            if (!isInternal(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static boolean isInternal(@NonNull String className) {
+        if (className.startsWith(GROUPIE_PACKAGE)) {
+            // Only the library package itself, not apps or samples in packages below it
+            return className.indexOf('.', GROUPIE_PACKAGE.length()) < 0;
+        }
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> void increment(@NonNull Map<K, Integer> counts, @NonNull K key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+}
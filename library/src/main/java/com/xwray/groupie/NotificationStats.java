@@ -0,0 +1,164 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The change notifications a {@link GroupAdapter} received during one frame, and what it cost to
+ * propagate them up the group tree.
+ * <p>
+ * Notifications are counted by type twice: once for each hop between groups as they travel up the
+ * tree, and once as they reach RecyclerView. Many group notifications per adapter notification
+ * mean a deep tree; many adapter notifications per frame, especially single item ones, suggest
+ * updates which could be batched or diffed.
+ *
+ * @see GroupAdapter#setNotificationStatsListener(OnNotificationStatsListener, boolean)
+ */
+public final class NotificationStats {
+
+    public static final int TYPE_CHANGED = 0;
+    public static final int TYPE_ITEM_INSERTED = 1;
+    public static final int TYPE_ITEM_RANGE_INSERTED = 2;
+    public static final int TYPE_ITEM_REMOVED = 3;
+    public static final int TYPE_ITEM_RANGE_REMOVED = 4;
+    public static final int TYPE_ITEM_MOVED = 5;
+    public static final int TYPE_ITEM_CHANGED = 6;
+    public static final int TYPE_ITEM_RANGE_CHANGED = 7;
+    public static final int TYPE_DATA_SET_INVALIDATED = 8;
+
+    static final int TYPE_COUNT = 9;
+
+    private static final String[] TYPE_NAMES = {
+            "changed", "itemInserted", "itemRangeInserted", "itemRemoved", "itemRangeRemoved",
+            "itemMoved", "itemChanged", "itemRangeChanged", "dataSetInvalidated"
+    };
+
+    private final long[] adapterNotifications;
+    private final long[] groupNotifications;
+    private final long positionWalks;
+    private final long positionWalkSteps;
+    private final long itemCountCalls;
+    @NonNull private final Map<Group, Integer> notificationsByOrigin;
+    @NonNull private final Map<String, Integer> notificationsByCallSite;
+
+    NotificationStats(@NonNull long[] adapterNotifications,
+                      @NonNull long[] groupNotifications,
+                      long positionWalks,
+                      long positionWalkSteps,
+                      long itemCountCalls,
+                      @NonNull Map<Group, Integer> notificationsByOrigin,
+                      @NonNull Map<String, Integer> notificationsByCallSite) {
+        this.adapterNotifications = adapterNotifications;
+        this.groupNotifications = groupNotifications;
+        this.positionWalks = positionWalks;
+        this.positionWalkSteps = positionWalkSteps;
+        this.itemCountCalls = itemCountCalls;
+        this.notificationsByOrigin = Collections.unmodifiableMap(notificationsByOrigin);
+        this.notificationsByCallSite = Collections.unmodifiableMap(notificationsByCallSite);
+    }
+
+    /**
+     * @param type One of the TYPE constants. Notifications with and without payloads are counted
+     *             as the same type.
+     * @return How many notifications of the type the adapter passed on to RecyclerView
+     */
+    public long getAdapterNotificationCount(int type) {
+        return adapterNotifications[type];
+    }
+
+    public long getAdapterNotificationCount() {
+        return sum(adapterNotifications);
+    }
+
+    /**
+     * @param type One of the TYPE constants
+     * @return How many notifications of the type groups sent to their parents, counting every
+     * hop up the tree
+     */
+    public long getGroupNotificationCount(int type) {
+        return groupNotifications[type];
+    }
+
+    public long getGroupNotificationCount() {
+        return sum(groupNotifications);
+    }
+
+    /**
+     * @return How many times a group walked its children to find the position of one of them,
+     * while passing on a notification
+     */
+    public long getPositionWalkCount() {
+        return positionWalks;
+    }
+
+    /**
+     * @return How many children were visited in total during {@link #getPositionWalkCount() position walks}
+     */
+    public long getPositionWalkSteps() {
+        return positionWalkSteps;
+    }
+
+    /**
+     * @return How many times a {@link NestedGroup} summed the item counts of its children while
+     * notifications were being passed on, counting each level of recursion
+     */
+    public long getItemCountCallCount() {
+        return itemCountCalls;
+    }
+
+    /**
+     * @return For each group which started a notification that reached the adapter, how many
+     * adapter notifications it caused. Notifications from the adapter itself, e.g. from diffs, and
+     * from top level items aren't included.
+     */
+    @NonNull
+    public Map<Group, Integer> getNotificationsByOrigin() {
+        return notificationsByOrigin;
+    }
+
+    /**
+     * @return For each call site outside Groupie and RecyclerView, how many adapter notifications
+     * it caused. Empty unless call sites are captured.
+     */
+    @NonNull
+    public Map<String, Integer> getNotificationsByCallSite() {
+        return notificationsByCallSite;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("NotificationStats{adapter=");
+        appendCounts(builder, adapterNotifications);
+        builder.append(", groups=");
+        appendCounts(builder, groupNotifications);
+        builder.append(", positionWalks=").append(positionWalks)
+                .append(", positionWalkSteps=").append(positionWalkSteps)
+                .append(", itemCountCalls=").append(itemCountCalls);
+        if (!notificationsByCallSite.isEmpty()) {
+            builder.append(", callSites=").append(notificationsByCallSite);
+        }
+        return builder.append('}').toString();
+    }
+
+    private static void appendCounts(@NonNull StringBuilder builder, @NonNull long[] counts) {
+        builder.append('{');
+        boolean isFirst = true;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (counts[type] == 0) continue;
+            if (!isFirst) builder.append(", ");
+            builder.append(TYPE_NAMES[type]).append('=').append(counts[type]);
+            isFirst = false;
+        }
+        builder.append('}');
+    }
+
+    private static long sum(@NonNull long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,18 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener which receives the ids of items which have just been visible enough, for long enough,
+ * to count as seen, batched once per frame in which there were any.
+ *
+ * @see GroupAdapter#setOnImpressionListener(OnImpressionListener, float, long)
+ */
+public interface OnImpressionListener {
+    /**
+     * @param itemIds The {@link Item#getId() ids} of the items, in the first {@code count}
+     *                elements. The array is reused for every batch, so copy any ids you keep.
+     * @param count   How many ids there are
+     */
+    void onImpressions(@NonNull long[] itemIds, int count);
+}
@@ -0,0 +1,13 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener which receives the change notifications a {@link GroupAdapter} received during each
+ * frame in which there were any.
+ *
+ * @see GroupAdapter#setNotificationStatsListener(OnNotificationStatsListener, boolean)
+ */
+public interface OnNotificationStatsListener {
+    void onFrameNotificationStats(@NonNull NotificationStats stats);
+}
@@ -0,0 +1,194 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Records partial updates made while an async diff is in flight, so that they can be rebased onto
+ * its result instead of being lost.
+ * <p>
+ * Groups which are only in the new list aren't observed by the adapter until the result is
+ * dispatched, so the log observes them meanwhile. Their changes are replayed to the adapter once
+ * the result has been dispatched, when their positions are valid. Changes to groups which are
+ * already in the adapter are dispatched straight away and need nothing more.
+ * <p>
+ * A structural change on either side (an insert, removal, move or invalidation) means the diff no
+ * longer describes how to get from what is displayed to the new list, so it makes the log
+ * stale and the update is diffed again in the background, or, after a few tries, swapped in
+ * without a diff.
+ */
+class PartialUpdateLog implements GroupDataObserver {
+
+    private static class Change {
+        final Group group;
+        final int positionStart;
+        /**
+         * The number of items changed, or -1 if the whole group changed
+         */
+        final int itemCount;
+        @Nullable
+        final Object payload;
+
+        Change(Group group, int positionStart, int itemCount, @Nullable Object payload) {
+            this.group = group;
+            this.positionStart = positionStart;
+            this.itemCount = itemCount;
+            this.payload = payload;
+        }
+    }
+
+    private final List<Group> observedGroups = new ArrayList<>();
+    private final List<Change> changes = new ArrayList<>();
+    private boolean isRecording;
+    private boolean isStale;
+
+    /**
+     * Start recording for a diff from the current groups to new groups, discarding anything
+     * recorded for an earlier diff.
+     */
+    void start(@NonNull Collection<? extends Group> currentGroups,
+               @NonNull Collection<? extends Group> newGroups) {
+        stop();
+        clear();
+        isRecording = true;
+        IdentityHashMap<Group, Boolean> current = new IdentityHashMap<>(currentGroups.size());
+        for (Group group : currentGroups) {
+            current.put(group, Boolean.TRUE);
+        }
+        for (Group group : newGroups) {
+            if (current.containsKey(group) || isObservedElsewhere(group)) {
+                continue;
+            }
+            current.put(group, Boolean.TRUE);
+            group.registerGroupDataObserver(this);
+            observedGroups.add(group);
+        }
+    }
+
+    /**
+     * Stop observing the new groups, keeping any changes recorded so far for {@link #replayTo}.
+     */
+    void stop() {
+        for (int i = 0; i < observedGroups.size(); i++) {
+            Group group = observedGroups.get(i);
+            if (!isObservedElsewhere(group)) {
+                group.unregisterGroupDataObserver(this);
+            }
+        }
+        observedGroups.clear();
+        isRecording = false;
+    }
+
+    boolean isStale() {
+        return isStale;
+    }
+
+    /**
+     * Called when the groups the adapter displays change structurally while recording.
+     */
+    void markStale() {
+        if (isRecording) {
+            isStale = true;
+            // The update will be diffed again, so any changes will be in its result
+            changes.clear();
+        }
+    }
+
+    /**
+     * Send the recorded changes on to the adapter, which must now observe the groups they were
+     * made in, and forget them.
+     */
+    void replayTo(@NonNull GroupDataObserver observer) {
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            if (change.itemCount < 0) {
+                observer.onChanged(change.group);
+            } else {
+                observer.onItemRangeChanged(change.group, change.positionStart, change.itemCount, change.payload);
+            }
+        }
+        clear();
+    }
+
+    void clear() {
+        changes.clear();
+        isStale = false;
+    }
+
+    /**
+     * An Item has a single observer, so one already in another group mustn't be taken from it
+     */
+    private boolean isObservedElsewhere(@NonNull Group group) {
+        if (group instanceof Item) {
+            GroupDataObserver observer = ((Item) group).parentDataObserver;
+            return observer != null && observer != this;
+        }
+        return false;
+    }
+
+    private void recordChange(@NonNull Group group, int positionStart, int itemCount, @Nullable Object payload) {
+        if (!isStale) {
+            changes.add(new Change(group, positionStart, itemCount, payload));
+        }
+    }
+
+    @Override
+    public void onChanged(@NonNull Group group) {
+        recordChange(group, 0, -1, null);
+    }
+
+    @Override
+    public void onItemInserted(@NonNull Group group, int position) {
+        markStale();
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position) {
+        recordChange(group, position, 1, null);
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position, Object payload) {
+        recordChange(group, position, 1, payload);
+    }
+
+    @Override
+    public void onItemRemoved(@NonNull Group group, int position) {
+        markStale();
+    }
+
+    @Override
+    public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount) {
+        recordChange(group, positionStart, itemCount, null);
+    }
+
+    @Override
+    public void onItemRangeChanged(@NonNull Group group, int positionStart, int itemCount, Object payload) {
+        recordChange(group, positionStart, itemCount, payload);
+    }
+
+    @Override
+    public void onItemRangeInserted(@NonNull Group group, int positionStart, int itemCount) {
+        markStale();
+    }
+
+    @Override
+    public void onItemRangeRemoved(@NonNull Group group, int positionStart, int itemCount) {
+        markStale();
+    }
+
+    @Override
+    public void onItemMoved(@NonNull Group group, int fromPosition, int toPosition) {
+        markStale();
+    }
+
+    @Override
+    public void onDataSetInvalidated() {
+        markStale();
+    }
+}
@@ -0,0 +1,215 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A group which keeps only the most recent Items appended to it, up to a fixed capacity, e.g. for
+ * a chat or log feed.
+ * <p>
+ * Items are held in a circular array, so appending an item and evicting the oldest one are O(1),
+ * rather than the array shift and rescan of removing the first child of a {@link Section}. Each
+ * item's position is indexed, so passing on a change notification from one is O(1) too.
+ * Appending with {@link #addAll(Collection)} notifies at most twice however many items are
+ * appended: one range removal for the evicted items and one range insert for the new ones.
+ * <p>
+ * Items can only be appended; adding at a position isn't supported.
+ */
+public class RingSection extends NestedGroup {
+
+    private final ItemRingBuffer items;
+
+    /**
+     * @param capacity The most items to keep. Appending more evicts the oldest items.
+     */
+    public RingSection(int capacity) {
+        checkCapacity(capacity);
+        items = new ItemRingBuffer(capacity);
+    }
+
+    public RingSection(int capacity, @NonNull Collection<? extends Group> items) {
+        this(capacity);
+        addAll(items);
+    }
+
+    public int getCapacity() {
+        return items.capacity();
+    }
+
+    /**
+     * Change the capacity, evicting the oldest items if there are now too many.
+     */
+    public void setCapacity(int capacity) {
+        checkCapacity(capacity);
+        int evicted = Math.max(0, items.size() - capacity);
+        evictOldest(evicted);
+        items.setCapacity(capacity);
+        if (evicted > 0) {
+            notifyItemRangeRemoved(0, evicted);
+        }
+    }
+
+    /**
+     * Append an item, evicting the oldest item if the section is full.
+     */
+    @Override
+    public void add(@NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "RingSection");
+        super.add(group);
+        if (items.size() == items.capacity()) {
+            evictOldest(1);
+            notifyItemRemoved(0);
+        }
+        items.add(item);
+        notifyItemInserted(items.size() - 1);
+    }
+
+    /**
+     * Append items in order, evicting as many of the oldest items as needed to make room. If
+     * there are more new items than the capacity, only the last of them are kept.
+     */
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Item> added = GroupUtils.asItems(groups, "RingSection");
+        // New items which would be evicted straight away are never added
+        List<Item> kept = added.subList(Math.max(0, added.size() - items.capacity()), added.size());
+        super.addAll(kept);
+
+        int evicted = Math.max(0, items.size() + kept.size() - items.capacity());
+        evictOldest(evicted);
+        for (Item item : kept) {
+            items.add(item);
+        }
+
+        if (evicted > 0) {
+            notifyItemRangeRemoved(0, evicted);
+        }
+        notifyItemRangeInserted(items.size() - kept.size(), kept.size());
+    }
+
+    /**
+     * Not supported, since items can only be appended.
+     */
+    @Override
+    public void add(int position, @NonNull Group group) {
+        throw new UnsupportedOperationException("A RingSection can only append items; use add(Group)");
+    }
+
+    /**
+     * Not supported, since items can only be appended.
+     */
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("A RingSection can only append items; use addAll(Collection)");
+    }
+
+    /**
+     * Remove an item from anywhere in the section, shifting whichever side of it is shorter.
+     */
+    @Override
+    public void remove(@NonNull Group group) {
+        int index = items.indexOf(group);
+        if (index < 0) {
+            return;
+        }
+        super.remove(group);
+        items.remove(index);
+        notifyItemRemoved(index);
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    /**
+     * Replace every item, keeping only the last of the new items if there are more than the
+     * capacity.
+     */
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> added = GroupUtils.asItems(groups, "RingSection");
+        List<Item> kept = added.subList(Math.max(0, added.size() - items.capacity()), added.size());
+        super.replaceAll(kept);
+        items.clear();
+        items.addAll(0, kept);
+        notifyDataSetInvalidated();
+    }
+
+    /**
+     * Remove every item.
+     */
+    public void clear() {
+        int itemCount = items.size();
+        if (itemCount == 0) {
+            return;
+        }
+        evictOldest(itemCount);
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    /**
+     * @return A copy of the items, oldest first
+     */
+    @NonNull
+    public List<Item> getItems() {
+        return items.toList();
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        return items.get(position);
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return items.get(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return items.size();
+    }
+
+    @Override
+    public int getPosition(@NonNull Group group) {
+        return items.indexOf(group);
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        return items.indexOf(item);
+    }
+
+    @Override
+    protected int getItemCountBeforeGroup(@NonNull Group group) {
+        return items.indexOf(group);
+    }
+
+    private void evictOldest(int count) {
+        for (int i = 0; i < count; i++) {
+            items.get(i).unregisterGroupDataObserver(this);
+        }
+        items.removeFirst(count);
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+        }
+    }
+}
@@ -30,6 +30,15 @@ public class Section extends NestedGroup {
 
     private boolean isPlaceholderVisible = false;
 
+    /**
+     * Maps the ids of the children which are Items to their index in {@link #children}, built when
+     * first needed after the children change.
+     */
+    private final LongIntHashMap childIndexById = new LongIntHashMap();
+    private final List<Section> childSections = new ArrayList<>();
+    private boolean isChildIndexStale = true;
+    private boolean areChildrenAllItems = true;
+
     public Section() {
         this(null, new ArrayList<Group>());
     }
@@ -54,6 +63,7 @@ public class Section extends NestedGroup {
     public void add(int position, @NonNull Group group) {
         super.add(position, group);
         children.add(position, group);
+        isChildIndexStale = true;
         final int notifyPosition = getHeaderItemCount() + GroupUtils.getItemCount(children.subList(0, position));
         notifyItemRangeInserted(notifyPosition, group.getItemCount());
         refreshEmptyState();
@@ -65,6 +75,7 @@ public class Section extends NestedGroup {
         super.addAll(groups);
         int position = getItemCountWithoutFooter();
         this.children.addAll(groups);
+        isChildIndexStale = true;
         notifyItemRangeInserted(position, GroupUtils.getItemCount(groups));
         refreshEmptyState();
     }
@@ -77,6 +88,7 @@ public class Section extends NestedGroup {
 
         super.addAll(position, groups);
         this.children.addAll(position, groups);
+        isChildIndexStale = true;
 
         final int notifyPosition = getHeaderItemCount() + GroupUtils.getItemCount(children.subList(0, position));
         notifyItemRangeInserted(notifyPosition, GroupUtils.getItemCount(groups));
@@ -88,6 +100,7 @@ public class Section extends NestedGroup {
         super.add(group);
         int position = getItemCountWithoutFooter();
         children.add(group);
+        isChildIndexStale = true;
         notifyItemRangeInserted(position, group.getItemCount());
         refreshEmptyState();
     }
@@ -97,6 +110,7 @@ public class Section extends NestedGroup {
         super.remove(group);
         int position = getItemCountBeforeGroup(group);
         children.remove(group);
+        isChildIndexStale = true;
         notifyItemRangeRemoved(position, group.getItemCount());
         refreshEmptyState();
     }
@@ -111,6 +125,7 @@ public class Section extends NestedGroup {
         for (Group group : groups) {
             int position = getItemCountBeforeGroup(group);
             children.remove(group);
+            isChildIndexStale = true;
             notifyItemRangeRemoved(position, group.getItemCount());
         }
         refreshEmptyState();
@@ -125,6 +140,7 @@ public class Section extends NestedGroup {
         super.replaceAll(groups);
         children.clear();
         children.addAll(groups);
+        isChildIndexStale = true;
 
         notifyDataSetInvalidated();
 
@@ -186,24 +202,148 @@ public class Section extends NestedGroup {
      *                    don't want DiffUtil to detect moved items.
      */
     public void update(@NonNull final Collection<? extends Group> newBodyGroups, boolean detectMoves) {
-        final List<Group> oldBodyGroups = new ArrayList<>(children);
-        final DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new DiffCallback(oldBodyGroups, newBodyGroups), detectMoves);
+        final DiffUtil.DiffResult diffResult;
+        boolean isTraced = GroupieTrace.beginSection("Groupie Section diff");
+        try {
+            diffResult = DiffUtil.calculateDiff(createDiffCallback(newBodyGroups), detectMoves);
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
         this.update(newBodyGroups, diffResult);
     }
 
+    /**
+     * Create a DiffUtil callback from the current body content to new content. It reads snapshots
+     * of both taken now, so the diff can be calculated on any thread. Pass the result to
+     * {@link #update(Collection, DiffUtil.DiffResult)}, and don't add or remove body content any
+     * other way meanwhile.
+     *
+     * @param newBodyGroups The new content of the section
+     */
+    @NonNull
+    public DiffUtil.Callback createDiffCallback(@NonNull final Collection<? extends Group> newBodyGroups) {
+        return new DiffCallback(children, newBodyGroups);
+    }
+
     /**
      * Overloaded version of update method in which you can pass your own DiffUtil.DiffResult
      * @param newBodyGroups The new content of the section
      * @param diffResult
      */
     public void update(@NonNull final Collection<? extends Group> newBodyGroups, DiffUtil.DiffResult diffResult) {
-        super.removeAll(children);
-        children.clear();
-        children.addAll(newBodyGroups);
-        super.addAll(newBodyGroups);
+        boolean isTraced = GroupieTrace.beginSection("Groupie Section.update");
+        try {
+            super.removeAll(children);
+            children.clear();
+            children.addAll(newBodyGroups);
+            isChildIndexStale = true;
+            super.addAll(newBodyGroups);
+
+            diffResult.dispatchUpdatesTo(listUpdateCallback);
+            refreshEmptyState();
+        } finally {
+            if (isTraced) {
+                GroupieTrace.endSection();
+            }
+        }
+    }
 
-        diffResult.dispatchUpdatesTo(listUpdateCallback);
-        refreshEmptyState();
+    /**
+     * Replace body items with new instances which have the same ids, notifying only a change for
+     * each, with the same payload a diff would send. Unlike
+     * {@link #update(Collection)}, nothing is diffed: each replacement is found by id in O(1).
+     * <p>
+     * Replacements are looked for among this section's own body items first, then in any
+     * Sections in its body. Replacements with the same content as the item they replace, as
+     * decided by {@link Item#hasSameContentAs(Item)}, are swapped in without rebinding, and items
+     * which are already in the section are left alone; call {@link Item#notifyChanged()} to
+     * rebind an item changed in place. Headers, footers and placeholders aren't searched.
+     *
+     * @param replacements The new items
+     * @return The number of items which were replaced
+     * @throws IllegalArgumentException If a replacement isn't {@link Item#isSameAs(Item) the same}
+     *                                  as the item with its id, e.g. it has another view type.
+     *                                  Replacements before it have already been made.
+     */
+    public int updateItems(@NonNull Collection<? extends Item> replacements) {
+        return updateItems(replacements, null);
+    }
+
+    /**
+     * @param unmatchedOut If not null, receives the replacements which weren't found
+     */
+    int updateItems(@NonNull Collection<? extends Item> replacements, @Nullable List<Item> unmatchedOut) {
+        if (isChildIndexStale) {
+            rebuildChildIndex();
+        }
+        List<Item> unmatched = childSections.isEmpty() ? unmatchedOut : new ArrayList<Item>();
+        int replaced = 0;
+        for (Item replacement : replacements) {
+            int index = childIndexById.get(replacement.getId(), -1);
+            if (index < 0) {
+                if (unmatched != null) {
+                    unmatched.add(replacement);
+                }
+                continue;
+            }
+            replaceChild(index, replacement);
+            replaced++;
+        }
+
+        if (!childSections.isEmpty()) {
+            for (int i = 0; i < childSections.size() && !unmatched.isEmpty(); i++) {
+                List<Item> stillUnmatched = new ArrayList<>();
+                replaced += childSections.get(i).updateItems(unmatched, stillUnmatched);
+                unmatched = stillUnmatched;
+            }
+            if (unmatchedOut != null) {
+                unmatchedOut.addAll(unmatched);
+            }
+        }
+        return replaced;
+    }
+
+    private void replaceChild(int index, @NonNull Item replacement) {
+        Item oldItem = (Item) children.get(index);
+        if (oldItem == replacement) {
+            // Already in place, so there is nothing to compare it with
+            return;
+        }
+        GroupUtils.checkSameAs(oldItem, replacement);
+        oldItem.unregisterGroupDataObserver(this);
+        children.set(index, replacement);
+        replacement.registerGroupDataObserver(this);
+        if (replacement.hasSameContentAs(oldItem)) {
+            // Nothing to rebind, but the adapter must stop using the old instance
+            notifyItemInstancesReplaced();
+        } else {
+            notifyItemChanged(getBodyPosition(index), ChangeMask.getChangePayload(oldItem, replacement));
+        }
+    }
+
+    private int getBodyPosition(int childIndex) {
+        int itemsBefore = areChildrenAllItems ? childIndex : GroupUtils.getItemCount(children.subList(0, childIndex));
+        return getHeaderItemCount() + itemsBefore;
+    }
+
+    private void rebuildChildIndex() {
+        childIndexById.clear(children.size());
+        childSections.clear();
+        areChildrenAllItems = true;
+        for (int i = 0; i < children.size(); i++) {
+            Group child = children.get(i);
+            if (child instanceof Item) {
+                childIndexById.put(((Item) child).getId(), i);
+            } else {
+                areChildrenAllItems = false;
+                if (child instanceof Section) {
+                    childSections.add((Section) child);
+                }
+            }
+        }
+        isChildIndexStale = false;
     }
 
     private ListUpdateCallback listUpdateCallback = new ListUpdateCallback() {
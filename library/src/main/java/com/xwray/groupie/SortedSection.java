@@ -0,0 +1,290 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A group which keeps its Items sorted by a {@link Comparator}, e.g. by timestamp or score.
+ * <p>
+ * Keeping a sorted list up to date with {@link Section#update(Collection)} diffs the whole list on
+ * every change. A SortedSection instead finds where each change goes by binary search and notifies
+ * only that change: an insert for {@link #add(Group)}, a range insert per run of adjacent new items
+ * for {@link #addAll(Collection)}, and a single move for {@link #relocate(Item)}.
+ * <p>
+ * Items which compare as equal keep the order they were added in. A SortedSection has no header or
+ * footer of its own; to show one, add the SortedSection to a {@link Section}.
+ */
+public class SortedSection extends NestedGroup {
+
+    private final Comparator<? super Item> comparator;
+    private final ArrayList<Item> items = new ArrayList<>();
+
+    public SortedSection(@NonNull Comparator<? super Item> comparator) {
+        this.comparator = comparator;
+    }
+
+    public SortedSection(@NonNull Comparator<? super Item> comparator, @NonNull Collection<? extends Group> items) {
+        this.comparator = comparator;
+        addAll(items);
+    }
+
+    /**
+     * Insert an item at its sorted position, after any items which compare as equal to it.
+     */
+    @Override
+    public void add(@NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "SortedSection");
+        super.add(group);
+        int index = upperBound(item);
+        items.add(index, item);
+        notifyItemInserted(index);
+    }
+
+    /**
+     * Sort the items and merge them in, which takes O(n + k log k) for k items added to n. Each
+     * run of new items which end up next to each other is notified as a single range insert.
+     */
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Item> added = GroupUtils.asItems(groups, "SortedSection");
+        // Stable, so equal new items keep their relative order
+        Collections.sort(added, comparator);
+        super.addAll(groups);
+
+        ArrayList<Item> merged = new ArrayList<>(items.size() + added.size());
+        // Pairs of (start, count) for each run of new items, in merged positions
+        int[] runs = new int[2 * added.size()];
+        int runCount = 0;
+        int existingIndex = 0;
+        int addedIndex = 0;
+        while (addedIndex < added.size()) {
+            Item next = added.get(addedIndex);
+            if (existingIndex < items.size() && comparator.compare(items.get(existingIndex), next) <= 0) {
+                merged.add(items.get(existingIndex++));
+                continue;
+            }
+            int position = merged.size();
+            if (runCount > 0 && runs[2 * runCount - 2] + runs[2 * runCount - 1] == position) {
+                runs[2 * runCount - 1]++;
+            } else {
+                runs[2 * runCount] = position;
+                runs[2 * runCount + 1] = 1;
+                runCount++;
+            }
+            merged.add(next);
+            addedIndex++;
+        }
+        merged.addAll(items.subList(existingIndex, items.size()));
+        items.clear();
+        items.addAll(merged);
+
+        // In ascending order, so each position is already correct once the earlier runs are in
+        for (int i = 0; i < runCount; i++) {
+            notifyItemRangeInserted(runs[2 * i], runs[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Not supported, since a SortedSection decides where its items go.
+     */
+    @Override
+    public void add(int position, @NonNull Group group) {
+        throw new UnsupportedOperationException("A SortedSection keeps its items in sorted order; use add(Group)");
+    }
+
+    /**
+     * Not supported, since a SortedSection decides where its items go.
+     */
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        throw new UnsupportedOperationException("A SortedSection keeps its items in sorted order; use addAll(Collection)");
+    }
+
+    @Override
+    public void remove(@NonNull Group group) {
+        if (!(group instanceof Item)) {
+            return;
+        }
+        int index = indexOf((Item) group);
+        if (index < 0) {
+            return;
+        }
+        super.remove(group);
+        items.remove(index);
+        notifyItemRemoved(index);
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> sorted = GroupUtils.asItems(groups, "SortedSection");
+        Collections.sort(sorted, comparator);
+        super.replaceAll(groups);
+        items.clear();
+        items.addAll(sorted);
+        notifyDataSetInvalidated();
+    }
+
+    /**
+     * Remove every item.
+     */
+    public void clear() {
+        if (items.isEmpty()) {
+            return;
+        }
+        int itemCount = items.size();
+        for (Item item : items) {
+            item.unregisterGroupDataObserver(this);
+        }
+        items.clear();
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    /**
+     * Move an item to its new sorted position after the value it is sorted by has changed,
+     * notifying a single move. This only moves the row; if the change also affects how the item
+     * is displayed, notify that as well, e.g. with {@link Item#notifyChanged()}.
+     *
+     * @return Whether the item's position changed
+     */
+    public boolean relocate(@NonNull Item item) {
+        int from = indexOf(item);
+        if (from < 0) {
+            return false;
+        }
+        items.remove(from);
+        int to = upperBound(item);
+        items.add(to, item);
+        if (from == to) {
+            return false;
+        }
+        notifyItemMoved(from, to);
+        return true;
+    }
+
+    /**
+     * @return A copy of the items, in sorted order
+     */
+    @NonNull
+    public List<Item> getItems() {
+        return new ArrayList<>(items);
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        return items.get(position);
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return items.get(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return items.size();
+    }
+
+    /**
+     * Groups from outside this section may be passed here, e.g. while an adapter looks an item up
+     * in each of its groups in turn, so this doesn't hand them to the comparator.
+     */
+    @Override
+    public int getPosition(@NonNull Group group) {
+        return indexOfIdentity(group);
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        return indexOfIdentity(item);
+    }
+
+    /**
+     * Only this section's own items notify it, so they can be found by binary search.
+     */
+    @Override
+    protected int getItemCountBeforeGroup(@NonNull Group group) {
+        return indexOf((Item) group);
+    }
+
+    /**
+     * Find an item by binary search, falling back to a scan if its sort value has changed since
+     * it was placed.
+     */
+    private int indexOf(@NonNull Item item) {
+        for (int i = lowerBound(item); i < items.size(); i++) {
+            Item candidate = items.get(i);
+            if (candidate == item) {
+                return i;
+            }
+            if (comparator.compare(candidate, item) != 0) {
+                break;
+            }
+        }
+        return indexOfIdentity(item);
+    }
+
+    private int indexOfIdentity(@NonNull Group group) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == group) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the first item which doesn't sort before the given one
+     */
+    private int lowerBound(@NonNull Item item) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(items.get(middle), item) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The index of the first item which sorts after the given one
+     */
+    private int upperBound(@NonNull Item item) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(items.get(middle), item) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,113 @@
+package com.xwray.groupie;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with power-of-two buckets. Recording is lock-free and
+ * allocation-free, and the histogram can be read from any thread while it is being recorded to.
+ * Reads aren't a consistent snapshot: a count read just before a recording finishes may not
+ * include it.
+ * <p>
+ * Bucket {@code i} holds durations in {@code [2^(i-1), 2^i)} nanoseconds, with bucket 0 holding
+ * durations of 0 and the last bucket holding everything too long for the others.
+ */
+public final class TimingHistogram {
+
+    /**
+     * Enough buckets for durations of up to about 9 minutes.
+     */
+    public static final int BUCKET_COUNT = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long durationNanos) {
+        if (durationNanos < 0) {
+            // Not possible with a monotonic clock, but don't let one bad reading corrupt the totals
+            durationNanos = 0;
+        }
+        buckets.incrementAndGet(bucketFor(durationNanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(durationNanos);
+        long max = maxNanos.get();
+        while (durationNanos > max && !maxNanos.compareAndSet(max, durationNanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return The mean duration, or 0 if nothing has been recorded
+     */
+    public long getMeanNanos() {
+        long count = this.count.get();
+        return count == 0 ? 0 : totalNanos.get() / count;
+    }
+
+    /**
+     * @return The number of durations recorded in the given bucket
+     */
+    public long getBucket(int index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * @return The exclusive upper bound of the given bucket in nanoseconds
+     */
+    public static long getBucketUpperBoundNanos(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+
+    /**
+     * Estimate a percentile, rounded up to the upper bound of the bucket it falls in.
+     *
+     * @param fraction The percentile as a fraction, e.g. 0.9 for the 90th percentile
+     * @return The estimate, or 0 if nothing has been recorded
+     */
+    public long getPercentileNanos(double fraction) {
+        long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * fraction));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(getBucketUpperBoundNanos(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Forget everything recorded so far. Recordings made while resetting may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    private static int bucketFor(long durationNanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(durationNanos);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.xwray.groupie;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * Listener that receives how long a {@link GroupAdapter} spent creating, binding and recycling
+ * view holders, and calculating async diffs, so that expensive item types can be found.
+ * Durations come from {@link System#nanoTime()}.
+ * <p>
+ * All methods are called on the main thread, inside the adapter's own hot paths, so keep them
+ * cheap. {@link TimingMetrics} is an implementation which collects histograms per view type.
+ *
+ * @see GroupAdapter#setTimingListener(TimingListener, int)
+ */
+@MainThread
+public interface TimingListener {
+
+    /**
+     * @param item The item whose layout and view holder were used to create the view holder
+     */
+    void onViewHolderCreated(@NonNull Item item, int viewType, long durationNanos);
+
+    /**
+     * @param isPayloadBind Whether the bind only had to apply payloads, rather than being a full bind
+     */
+    void onViewHolderBound(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, boolean isPayloadBind, long durationNanos);
+
+    void onViewHolderRecycled(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, long durationNanos);
+
+    /**
+     * Called for each diff started by {@link GroupAdapter#updateAsync(java.util.List)}, including
+     * diffs whose results were discarded because a newer update was started.
+     *
+     * @param durationNanos How long the diff took on the background thread
+     */
+    void onAsyncDiffCalculated(int oldItemCount, int newItemCount, long durationNanos);
+}
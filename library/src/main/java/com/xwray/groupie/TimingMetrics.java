@@ -0,0 +1,204 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link TimingListener} which keeps a {@link TimingHistogram} of create, bind, payload bind
+ * and recycle times for each view type and Item class, and one of async diff times. Item classes
+ * which share a layout are timed separately.
+ * <p>
+ * Recording doesn't lock or allocate once a view type and Item class have been seen, so it can
+ * stay registered in release builds, usually with a sample interval passed to
+ * {@link GroupAdapter#setTimingListener(TimingListener, int)}. The histograms can be read from
+ * any thread, e.g. to upload them periodically.
+ */
+public class TimingMetrics implements TimingListener {
+
+    /**
+     * The timings for the items of one class with one view type.
+     */
+    public static final class ViewTypeTimings {
+        private final int viewType;
+        @NonNull private final Class<? extends Item> itemClass;
+        private final TimingHistogram createTimes = new TimingHistogram();
+        private final TimingHistogram bindTimes = new TimingHistogram();
+        private final TimingHistogram payloadBindTimes = new TimingHistogram();
+        private final TimingHistogram recycleTimes = new TimingHistogram();
+
+        ViewTypeTimings(int viewType, @NonNull Class<? extends Item> itemClass) {
+            this.viewType = viewType;
+            this.itemClass = itemClass;
+        }
+
+        public int getViewType() {
+            return viewType;
+        }
+
+        /**
+         * @return The class of the items these timings are for
+         */
+        @NonNull
+        public Class<? extends Item> getItemClass() {
+            return itemClass;
+        }
+
+        @NonNull
+        public TimingHistogram getCreateTimes() {
+            return createTimes;
+        }
+
+        /**
+         * @return The times of full binds, i.e. binds without payloads
+         */
+        @NonNull
+        public TimingHistogram getBindTimes() {
+            return bindTimes;
+        }
+
+        @NonNull
+        public TimingHistogram getPayloadBindTimes() {
+            return payloadBindTimes;
+        }
+
+        @NonNull
+        public TimingHistogram getRecycleTimes() {
+            return recycleTimes;
+        }
+
+        void reset() {
+            createTimes.reset();
+            bindTimes.reset();
+            payloadBindTimes.reset();
+            recycleTimes.reset();
+        }
+    }
+
+    /**
+     * View types sorted for binary search, with their timings at the same index. A view type is
+     * repeated for each Item class seen with it. Only replaced, never modified, so readers on other
+     * threads always see a consistent pair.
+     */
+    private static final class Table {
+        final int[] viewTypes;
+        final ViewTypeTimings[] timings;
+
+        Table(int[] viewTypes, ViewTypeTimings[] timings) {
+            this.viewTypes = viewTypes;
+            this.timings = timings;
+        }
+    }
+
+    private volatile Table table = new Table(new int[0], new ViewTypeTimings[0]);
+    private final TimingHistogram asyncDiffTimes = new TimingHistogram();
+
+    @Override
+    public void onViewHolderCreated(@NonNull Item item, int viewType, long durationNanos) {
+        timingsFor(viewType, item.getClass()).createTimes.record(durationNanos);
+    }
+
+    @Override
+    public void onViewHolderBound(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, boolean isPayloadBind, long durationNanos) {
+        ViewTypeTimings timings = timingsFor(item.getViewType(), item.getClass());
+        (isPayloadBind ? timings.payloadBindTimes : timings.bindTimes).record(durationNanos);
+    }
+
+    @Override
+    public void onViewHolderRecycled(@NonNull GroupieViewHolder viewHolder, @NonNull Item item, long durationNanos) {
+        timingsFor(item.getViewType(), item.getClass()).recycleTimes.record(durationNanos);
+    }
+
+    @Override
+    public void onAsyncDiffCalculated(int oldItemCount, int newItemCount, long durationNanos) {
+        asyncDiffTimes.record(durationNanos);
+    }
+
+    /**
+     * @return The timings for every view type and Item class seen so far, in order of view type
+     */
+    @NonNull
+    public List<ViewTypeTimings> getViewTypeTimings() {
+        return Collections.unmodifiableList(Arrays.asList(table.timings));
+    }
+
+    /**
+     * @return The timings for items of the given class with the given view type, or null if none
+     * have been seen
+     */
+    @Nullable
+    public ViewTypeTimings getViewTypeTimings(int viewType, @NonNull Class<? extends Item> itemClass) {
+        Table table = this.table;
+        int index = indexOf(table, viewType, itemClass);
+        return index >= 0 ? table.timings[index] : null;
+    }
+
+    @NonNull
+    public TimingHistogram getAsyncDiffTimes() {
+        return asyncDiffTimes;
+    }
+
+    /**
+     * Forget all timings recorded so far, e.g. after uploading them. View types and Item classes
+     * already seen are kept.
+     */
+    public void reset() {
+        for (ViewTypeTimings timings : table.timings) {
+            timings.reset();
+        }
+        asyncDiffTimes.reset();
+    }
+
+    @NonNull
+    private ViewTypeTimings timingsFor(int viewType, @NonNull Class<? extends Item> itemClass) {
+        Table table = this.table;
+        int index = indexOf(table, viewType, itemClass);
+        if (index >= 0) {
+            return table.timings[index];
+        }
+
+        // A new view type or Item class: only the main thread records, so copying without a lock is safe
+        int insertAt = -index - 1;
+        int size = table.viewTypes.length;
+        int[] viewTypes = new int[size + 1];
+        ViewTypeTimings[] timings = new ViewTypeTimings[size + 1];
+        System.arraycopy(table.viewTypes, 0, viewTypes, 0, insertAt);
+        System.arraycopy(table.viewTypes, insertAt, viewTypes, insertAt + 1, size - insertAt);
+        System.arraycopy(table.timings, 0, timings, 0, insertAt);
+        System.arraycopy(table.timings, insertAt, timings, insertAt + 1, size - insertAt);
+        ViewTypeTimings added = new ViewTypeTimings(viewType, itemClass);
+        viewTypes[insertAt] = viewType;
+        timings[insertAt] = added;
+        this.table = new Table(viewTypes, timings);
+        return added;
+    }
+
+    /**
+     * @return The index of the timings, or if there are none, {@code -(insertion point) - 1},
+     * where the insertion point is after any other Item classes with the same view type
+     */
+    private static int indexOf(@NonNull Table table, int viewType, @NonNull Class<? extends Item> itemClass) {
+        // Find the first entry for the view type; there is usually only one
+        int low = 0;
+        int high = table.viewTypes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (table.viewTypes[mid] < viewType) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int index = low;
+        while (index < table.viewTypes.length && table.viewTypes[index] == viewType) {
+            if (table.timings[index].itemClass == itemClass) {
+                return index;
+            }
+            index++;
+        }
+        return -index - 1;
+    }
+}
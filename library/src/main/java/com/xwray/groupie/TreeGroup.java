@@ -0,0 +1,562 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group which displays a tree of Items, any of which may be expanded to show its children.
+ * <p>
+ * Nesting {@link ExpandableGroup}s recounts every visible item of a subtree whenever a node is
+ * toggled, and again at every ancestor while the notification travels up. A TreeGroup instead
+ * keeps the number of visible items below each node, so expanding, collapsing and looking up the
+ * position of an item only touch the path from the node to the root (O(depth * log siblings)).
+ * <p>
+ * {@link Node#expandAll()}, {@link Node#collapseAll()}, {@link #expandAll()} and
+ * {@link #collapseAll()} change a whole subtree at once and notify the parent with a single
+ * changed range plus a single inserted or removed range, rather than once per node.
+ * <p>
+ * Each node holds one Item. To toggle a node from a click, look it up with {@link #getNode(Item)}:
+ * <pre>
+ * treeGroup.getNode(item).toggleExpanded();
+ * </pre>
+ */
+public class TreeGroup extends NestedGroup {
+
+    private final Node root = new Node(null, null);
+    private final Map<Item, Node> nodes = new IdentityHashMap<>();
+    private int[] scratchCounts = new int[8];
+
+    public TreeGroup() {
+    }
+
+    public TreeGroup(@NonNull Collection<? extends Item> items) {
+        for (Item item : items) {
+            addNode(item);
+        }
+    }
+
+    /**
+     * Add a top level node at the end of the tree.
+     *
+     * @param item The item to display for the node
+     * @return The new node
+     */
+    @NonNull
+    public Node addNode(@NonNull Item item) {
+        return root.addChild(item);
+    }
+
+    /**
+     * Add a top level node at the given index among the other top level nodes.
+     *
+     * @param index The index among the top level nodes
+     * @param item The item to display for the node
+     * @return The new node
+     */
+    @NonNull
+    public Node addNode(int index, @NonNull Item item) {
+        return root.addChild(index, item);
+    }
+
+    /**
+     * @param item An item anywhere in the tree, whether visible or not
+     * @return The node holding the item, or null if it isn't part of this tree
+     */
+    @Nullable
+    public Node getNode(@NonNull Item item) {
+        return nodes.get(item);
+    }
+
+    public int getTopLevelNodeCount() {
+        return root.getChildCount();
+    }
+
+    @NonNull
+    public Node getTopLevelNode(int index) {
+        return root.getChild(index);
+    }
+
+    /**
+     * Expand every node in the tree.
+     */
+    public void expandAll() {
+        setExpandedRecursively(root, true);
+    }
+
+    /**
+     * Collapse every node in the tree, leaving only the top level nodes visible.
+     */
+    public void collapseAll() {
+        setExpandedRecursively(root, false);
+    }
+
+    /**
+     * Remove every node from the tree.
+     */
+    public void clear() {
+        if (root.getChildCount() == 0) {
+            return;
+        }
+        int itemCount = getItemCount();
+        detachChildren(root);
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    @Override
+    public int getItemCount() {
+        return root.visibleCount;
+    }
+
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                    + getItemCount() + " items");
+        }
+        Node node = root;
+        int offset = position;
+        while (true) {
+            int childIndex = node.childCounts.indexOf(offset);
+            offset -= node.childCounts.prefixSum(childIndex);
+            Node child = node.children.get(childIndex);
+            if (offset == 0) {
+                return child.item;
+            }
+            // Skip over the child's own row into its children
+            offset--;
+            node = child;
+        }
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        Node node = nodes.get(item);
+        return node == null ? -1 : getPosition(node);
+    }
+
+    /**
+     * The "groups" of a TreeGroup are its visible items, in order.
+     */
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return getItem(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return getItemCount();
+    }
+
+    @Override
+    public int getPosition(@NonNull Group group) {
+        return group instanceof Item ? getPosition((Item) group) : -1;
+    }
+
+    @Override
+    protected int getItemCountBeforeGroup(@NonNull Group group) {
+        return getPosition(group);
+    }
+
+    @Override
+    public void add(@NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "TreeGroup");
+        super.add(group);
+        addNode(item);
+    }
+
+    @Override
+    public void add(int position, @NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "TreeGroup");
+        super.add(position, group);
+        addNode(position, item);
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        addAll(root.getChildCount(), groups);
+    }
+
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Item> items = GroupUtils.asItems(groups, "TreeGroup");
+        super.addAll(position, groups);
+        int index = position;
+        for (Item item : items) {
+            addNode(index++, item);
+        }
+    }
+
+    /**
+     * Removes the node holding the given item, along with all of its children.
+     */
+    @Override
+    public void remove(@NonNull Group group) {
+        Node node = group instanceof Item ? nodes.get(group) : null;
+        if (node == null) {
+            return;
+        }
+        super.remove(group);
+        node.remove();
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> items = GroupUtils.asItems(groups, "TreeGroup");
+        super.replaceAll(groups);
+        detachChildren(root);
+        for (Item item : items) {
+            insertNode(root, root.getChildCount(), item);
+        }
+        notifyDataSetInvalidated();
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position) {
+        // Hidden items can still notify; their rows aren't in the adapter.
+        if (getPosition(group) >= 0) {
+            super.onItemChanged(group, position);
+        }
+    }
+
+    @Override
+    public void onItemChanged(@NonNull Group group, int position, Object payload) {
+        if (getPosition(group) >= 0) {
+            super.onItemChanged(group, position, payload);
+        }
+    }
+
+    private int getPosition(@NonNull Node node) {
+        if (node.removed) {
+            return -1;
+        }
+        int position = 0;
+        Node child = node;
+        while (child.parent != null) {
+            Node parent = child.parent;
+            if (!parent.expanded) {
+                return -1;
+            }
+            position += parent.getOwnRowCount() + parent.childCounts.prefixSum(child.index);
+            child = parent;
+        }
+        return position;
+    }
+
+    @NonNull
+    private Node insertNode(@NonNull Node parent, int index, @NonNull Item item) {
+        if (nodes.containsKey(item)) {
+            throw new IllegalArgumentException("Item " + item + " is already in this TreeGroup");
+        }
+        Node node = new Node(item, parent);
+        parent.ensureChildren();
+        parent.children.add(index, node);
+        parent.childCounts.insert(index, node.visibleCount);
+        parent.reindexChildrenFrom(index);
+        nodes.put(item, node);
+        item.registerGroupDataObserver(this);
+        if (parent.expanded) {
+            parent.visibleCount += node.visibleCount;
+            propagateVisibleCountChange(parent, node.visibleCount);
+        }
+        return node;
+    }
+
+    /**
+     * Update the counts held by the ancestors of a node whose own visible count has just changed
+     * by {@code delta}. Stops at the first collapsed ancestor, since nothing above it can see
+     * the change.
+     */
+    private void propagateVisibleCountChange(@NonNull Node node, int delta) {
+        Node child = node;
+        while (delta != 0 && child.parent != null) {
+            Node parent = child.parent;
+            parent.childCounts.add(child.index, delta);
+            if (!parent.expanded) {
+                return;
+            }
+            parent.visibleCount += delta;
+            child = parent;
+        }
+    }
+
+    private void setExpanded(@NonNull Node node, boolean expanded) {
+        if (node.expanded == expanded) {
+            return;
+        }
+        int childRowCount = node.getChildRowCount();
+        node.expanded = expanded;
+        int delta = expanded ? childRowCount : -childRowCount;
+        node.visibleCount += delta;
+        propagateVisibleCountChange(node, delta);
+
+        int position = getPosition(node);
+        if (position < 0 || childRowCount == 0) {
+            return;
+        }
+        if (expanded) {
+            notifyItemRangeInserted(position + 1, childRowCount);
+        } else {
+            notifyItemRangeRemoved(position + 1, childRowCount);
+        }
+    }
+
+    private void setExpandedRecursively(@NonNull Node node, boolean expanded) {
+        int oldRowCount = node.visibleCount - node.getOwnRowCount();
+        int oldVisibleCount = node.visibleCount;
+        applyExpandedRecursively(node, expanded);
+        propagateVisibleCountChange(node, node.visibleCount - oldVisibleCount);
+
+        int position = getPosition(node);
+        int newRowCount = node.visibleCount - node.getOwnRowCount();
+        if (position < 0 || oldRowCount == newRowCount) {
+            // Expanding (or collapsing) everything only ever grows (or shrinks) the subtree, so an
+            // equal count means no visible row changed.
+            return;
+        }
+        notifyRowsReplaced(position + node.getOwnRowCount(), oldRowCount, newRowCount);
+    }
+
+    private void applyExpandedRecursively(@NonNull Node node, boolean expanded) {
+        if (node != root) {
+            node.expanded = expanded;
+        }
+        int childCount = node.getChildCount();
+        if (childCount == 0) {
+            node.visibleCount = node.getOwnRowCount();
+            return;
+        }
+        for (int i = 0; i < childCount; i++) {
+            applyExpandedRecursively(node.children.get(i), expanded);
+        }
+        // Children have all been visited, so the shared scratch array is free to use
+        if (scratchCounts.length < childCount) {
+            scratchCounts = new int[Math.max(childCount, scratchCounts.length * 2)];
+        }
+        for (int i = 0; i < childCount; i++) {
+            scratchCounts[i] = node.children.get(i).visibleCount;
+        }
+        node.childCounts.setAll(scratchCounts, childCount);
+        node.visibleCount = node.getOwnRowCount() + (node.expanded ? node.childCounts.total() : 0);
+    }
+
+    /**
+     * Notify that the {@code oldCount} rows starting at {@code start} have been replaced by
+     * {@code newCount} rows, as one changed range and one inserted or removed range.
+     */
+    private void notifyRowsReplaced(int start, int oldCount, int newCount) {
+        int changedCount = Math.min(oldCount, newCount);
+        if (changedCount > 0) {
+            notifyItemRangeChanged(start, changedCount);
+        }
+        if (newCount > oldCount) {
+            notifyItemRangeInserted(start + oldCount, newCount - oldCount);
+        } else if (oldCount > newCount) {
+            notifyItemRangeRemoved(start + newCount, oldCount - newCount);
+        }
+    }
+
+    private void removeNode(@NonNull Node node) {
+        int position = getPosition(node);
+        int rowCount = node.visibleCount;
+        Node parent = node.parent;
+        parent.children.remove(node.index);
+        parent.childCounts.remove(node.index);
+        parent.reindexChildrenFrom(node.index);
+        if (parent.expanded) {
+            parent.visibleCount -= rowCount;
+            propagateVisibleCountChange(parent, -rowCount);
+        }
+        detach(node);
+        if (position >= 0) {
+            notifyItemRangeRemoved(position, rowCount);
+        }
+    }
+
+    private void detachChildren(@NonNull Node node) {
+        for (int i = 0; i < node.getChildCount(); i++) {
+            detach(node.children.get(i));
+        }
+        if (node.children != null) {
+            node.children.clear();
+            node.childCounts.clear();
+        }
+        node.visibleCount = node.getOwnRowCount();
+    }
+
+    private void detach(@NonNull Node node) {
+        node.removed = true;
+        nodes.remove(node.item);
+        node.item.unregisterGroupDataObserver(this);
+        for (int i = 0; i < node.getChildCount(); i++) {
+            detach(node.children.get(i));
+        }
+    }
+
+    /**
+     * A node of a {@link TreeGroup}, holding one Item and any number of child nodes.
+     * Nodes start collapsed.
+     */
+    public final class Node {
+        @Nullable private final Item item;
+        @Nullable private final Node parent;
+        private final int depth;
+        @Nullable private List<Node> children;
+        @Nullable private FenwickTree childCounts;
+        private int index;
+        private boolean expanded;
+        private boolean removed;
+        /**
+         * The number of rows this node currently occupies: itself, plus its children's rows if
+         * expanded.
+         */
+        private int visibleCount;
+
+        private Node(@Nullable Item item, @Nullable Node parent) {
+            this.item = item;
+            this.parent = parent;
+            this.depth = parent == null || parent.parent == null ? 0 : parent.depth + 1;
+            // The root node has no row of its own and is always expanded
+            this.expanded = item == null;
+            this.visibleCount = getOwnRowCount();
+        }
+
+        @NonNull
+        public Item getItem() {
+            //noinspection ConstantConditions
+            return item;
+        }
+
+        /**
+         * @return The parent node, or null for a top level node
+         */
+        @Nullable
+        public Node getParent() {
+            return parent == root ? null : parent;
+        }
+
+        /**
+         * @return 0 for a top level node, 1 for its children and so on
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getChildCount() {
+            return children == null ? 0 : children.size();
+        }
+
+        @NonNull
+        public Node getChild(int index) {
+            if (children == null) {
+                throw new IndexOutOfBoundsException("Wanted child at " + index + " but there are no children");
+            }
+            return children.get(index);
+        }
+
+        @NonNull
+        public Node addChild(@NonNull Item item) {
+            return addChild(getChildCount(), item);
+        }
+
+        @NonNull
+        public Node addChild(int index, @NonNull Item item) {
+            checkNotRemoved();
+            Node node = insertNode(this, index, item);
+            int position = TreeGroup.this.getPosition(node);
+            if (position >= 0) {
+                notifyItemInserted(position);
+            }
+            return node;
+        }
+
+        /**
+         * Remove this node and all of its children from the tree.
+         */
+        public void remove() {
+            checkNotRemoved();
+            removeNode(this);
+        }
+
+        public boolean isExpanded() {
+            return expanded;
+        }
+
+        public void setExpanded(boolean expanded) {
+            checkNotRemoved();
+            TreeGroup.this.setExpanded(this, expanded);
+        }
+
+        public void toggleExpanded() {
+            setExpanded(!expanded);
+        }
+
+        /**
+         * Expand this node and every node below it.
+         */
+        public void expandAll() {
+            checkNotRemoved();
+            setExpandedRecursively(this, true);
+        }
+
+        /**
+         * Collapse this node and every node below it.
+         */
+        public void collapseAll() {
+            checkNotRemoved();
+            setExpandedRecursively(this, false);
+        }
+
+        /**
+         * @return The position of this node's item within the TreeGroup, or -1 if one of its
+         * ancestors is collapsed or it has been removed
+         */
+        public int getPosition() {
+            return TreeGroup.this.getPosition(this);
+        }
+
+        private int getOwnRowCount() {
+            return item == null ? 0 : 1;
+        }
+
+        private int getChildRowCount() {
+            return childCounts == null ? 0 : childCounts.total();
+        }
+
+        private void ensureChildren() {
+            if (children == null) {
+                children = new ArrayList<>();
+                childCounts = new FenwickTree(4);
+            }
+        }
+
+        private void reindexChildrenFrom(int start) {
+            for (int i = start; i < children.size(); i++) {
+                children.get(i).index = i;
+            }
+        }
+
+        private void checkNotRemoved() {
+            if (removed) {
+                throw new IllegalStateException("Node has been removed from its TreeGroup");
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.xwray.groupie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A group of Items which only holds on to the items near where the list was last bound, so that
+ * an endless feed doesn't keep every item it has ever shown, and everything those items
+ * reference, in memory.
+ * <p>
+ * Items more than the window radius away from the last position passed to {@link #onBind(int)}
+ * are released, keeping only their ids. A {@link GroupAdapter} calls it for each bind through
+ * {@link #getItemToBind(int)}, which NestedGroups pass down to the child being bound; when the
+ * section is nested in a group which isn't a NestedGroup, call it from that group's owner as
+ * positions are bound. Reading an item with {@link #getItem(int)} doesn't move the window, so a
+ * full read, e.g. to diff the adapter, never releases items which are bound. A released item is
+ * created again from its id by the {@link ItemFactory} when it is read: inside the window it is
+ * held again, and outside it the last few instances created are reused until items are next
+ * added or removed, as the adapter reads a position several times to lay it out. Item counts and
+ * positions never change, so neither releasing nor recreating an item notifies anything.
+ * <p>
+ * Items must have stable ids, set with {@link Item#Item(long)}, for the factory to recreate them
+ * from. Only held items notify their changes; add a WindowedSection to an adapter rather than
+ * updating it with a diff.
+ */
+public class WindowedSection extends NestedGroup {
+
+    public interface ItemFactory {
+        /**
+         * Create the item for an id which was released.
+         */
+        @NonNull
+        Item createItem(long id);
+    }
+
+    /**
+     * How many of the items recreated outside the window to keep
+     */
+    private static final int RECREATED_CACHE_SIZE = 4;
+
+    private final ItemFactory factory;
+    private final int windowRadius;
+    /**
+     * The items in order, with null for those which have been released.
+     */
+    private final ArrayList<Item> items = new ArrayList<>();
+    private long[] ids = new long[16];
+    /**
+     * Items are only held in [windowStart, windowEnd).
+     */
+    private int windowStart = 0;
+    private int windowEnd;
+    /**
+     * The positions and instances of the items last recreated outside the window, written in turn
+     */
+    private final int[] recreatedPositions = new int[RECREATED_CACHE_SIZE];
+    private final Item[] recreatedItems = new Item[RECREATED_CACHE_SIZE];
+    private int nextRecreated = 0;
+
+    /**
+     * @param windowRadius How many items to hold on either side of the last bound position. This
+     *                     should be comfortably more than fit on screen.
+     */
+    public WindowedSection(int windowRadius, @NonNull ItemFactory factory) {
+        if (windowRadius < 1) {
+            throw new IllegalArgumentException("Window radius must be at least 1, but was " + windowRadius);
+        }
+        this.windowRadius = windowRadius;
+        this.factory = factory;
+        windowEnd = windowRadius + 1;
+        clearRecreated();
+    }
+
+    public int getWindowRadius() {
+        return windowRadius;
+    }
+
+    /**
+     * @return Whether the item at a position is currently held, rather than released
+     */
+    public boolean isHeld(int position) {
+        return items.get(position) != null;
+    }
+
+    @Override
+    public void add(@NonNull Group group) {
+        add(items.size(), group);
+    }
+
+    @Override
+    public void add(int position, @NonNull Group group) {
+        Item item = GroupUtils.asItem(group, "WindowedSection");
+        super.add(position, group);
+        insertIds(position, 1);
+        ids[position] = item.getId();
+        items.add(position, item);
+        clearRecreated();
+        releaseShifted(position, 1);
+        notifyItemInserted(position);
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Group> groups) {
+        addAll(items.size(), groups);
+    }
+
+    @Override
+    public void addAll(int position, @NonNull Collection<? extends Group> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Item> added = GroupUtils.asItems(groups, "WindowedSection");
+        super.addAll(position, groups);
+        insertIds(position, added.size());
+        for (int i = 0; i < added.size(); i++) {
+            ids[position + i] = added.get(i).getId();
+        }
+        items.addAll(position, added);
+        clearRecreated();
+        releaseShifted(position, added.size());
+        notifyItemRangeInserted(position, added.size());
+    }
+
+    /**
+     * Remove an item. Only held items can be found; to remove a released one, use
+     * {@link #removeAt(int)}.
+     */
+    @Override
+    public void remove(@NonNull Group group) {
+        int position = getPosition(group);
+        if (position >= 0) {
+            removeAt(position);
+        }
+    }
+
+    @Override
+    public void removeAll(@NonNull Collection<? extends Group> groups) {
+        for (Group group : groups) {
+            remove(group);
+        }
+    }
+
+    /**
+     * Remove the item at a position, whether it is held or not.
+     */
+    public void removeAt(int position) {
+        checkPosition(position);
+        Item item = items.remove(position);
+        if (item != null) {
+            super.remove(item);
+        }
+        System.arraycopy(ids, position + 1, ids, position, items.size() - position);
+        clearRecreated();
+        if (position < windowStart && windowStart - 1 < items.size()) {
+            // The first held item has been shifted out of the window
+            release(windowStart - 1);
+        }
+        notifyItemRemoved(position);
+    }
+
+    @Override
+    public void replaceAll(@NonNull Collection<? extends Group> groups) {
+        List<Item> added = GroupUtils.asItems(groups, "WindowedSection");
+        for (int i = 0; i < items.size(); i++) {
+            release(i);
+        }
+        items.clear();
+        clearRecreated();
+        ids = new long[Math.max(16, added.size())];
+        for (int i = 0; i < added.size(); i++) {
+            Item item = added.get(i);
+            ids[i] = item.getId();
+            if (i >= windowStart && i < windowEnd) {
+                item.registerGroupDataObserver(this);
+                items.add(item);
+            } else {
+                items.add(null);
+            }
+        }
+        notifyDataSetInvalidated();
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Move the window to be centred on a position which is being bound, releasing the items which
+     * are now outside it.
+     */
+    public void onBind(int position) {
+        checkPosition(position);
+        moveWindow(position);
+    }
+
+    /**
+     * Moves the window to the position being bound.
+     */
+    @NonNull
+    @Override
+    public Item getItemToBind(int position) {
+        onBind(position);
+        return getItem(position);
+    }
+
+    /**
+     * Get an item, recreating it if it was released. The window doesn't move.
+     */
+    @NonNull
+    @Override
+    public Item getItem(int position) {
+        checkPosition(position);
+        Item item = items.get(position);
+        if (item != null) {
+            return item;
+        }
+        item = getRecreated(position);
+        boolean isInWindow = position >= windowStart && position < windowEnd;
+        if (item == null) {
+            item = factory.createItem(ids[position]);
+            if (!isInWindow) {
+                recreatedPositions[nextRecreated] = position;
+                recreatedItems[nextRecreated] = item;
+                nextRecreated = (nextRecreated + 1) % RECREATED_CACHE_SIZE;
+            }
+        }
+        if (isInWindow) {
+            item.registerGroupDataObserver(this);
+            items.set(position, item);
+        }
+        return item;
+    }
+
+    @NonNull
+    @Override
+    public Group getGroup(int position) {
+        return getItem(position);
+    }
+
+    @Override
+    public int getGroupCount() {
+        return items.size();
+    }
+
+    /**
+     * Only held items are found, which are all within the window.
+     */
+    @Override
+    public int getPosition(@NonNull Group group) {
+        int end = Math.min(windowEnd, items.size());
+        for (int i = windowStart; i < end; i++) {
+            if (items.get(i) == group) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getPosition(@NonNull Item item) {
+        return getPosition((Group) item);
+    }
+
+    @Override
+    protected int getItemCountBeforeGroup(@NonNull Group group) {
+        return getPosition(group);
+    }
+
+    private void moveWindow(int center) {
+        int start = Math.max(0, center - windowRadius);
+        int end = center + windowRadius + 1;
+        if (start == windowStart && end == windowEnd) {
+            return;
+        }
+        int size = items.size();
+        // Only the parts of the old window which the new one doesn't cover need releasing
+        for (int i = windowStart; i < Math.min(Math.min(start, windowEnd), size); i++) {
+            release(i);
+        }
+        for (int i = Math.max(end, windowStart); i < Math.min(windowEnd, size); i++) {
+            release(i);
+        }
+        windowStart = start;
+        windowEnd = end;
+    }
+
+    /**
+     * After inserting, release inserted items outside the window and held items which have been
+     * pushed out of it.
+     */
+    private void releaseShifted(int position, int count) {
+        for (int i = position; i < position + count; i++) {
+            if (i < windowStart || i >= windowEnd) {
+                release(i);
+            }
+        }
+        if (position < windowEnd) {
+            int end = Math.min(items.size(), windowEnd + count);
+            for (int i = Math.max(windowEnd, position + count); i < end; i++) {
+                release(i);
+            }
+        }
+    }
+
+    private void release(int position) {
+        Item item = items.get(position);
+        if (item != null) {
+            item.unregisterGroupDataObserver(this);
+            items.set(position, null);
+        }
+    }
+
+    @Nullable
+    private Item getRecreated(int position) {
+        for (int i = 0; i < RECREATED_CACHE_SIZE; i++) {
+            if (recreatedPositions[i] == position) {
+                return recreatedItems[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Positions shift when items are added or removed, so the recreated items are dropped
+     */
+    private void clearRecreated() {
+        Arrays.fill(recreatedPositions, -1);
+        Arrays.fill(recreatedItems, null);
+    }
+
+    private void insertIds(int position, int count) {
+        int size = items.size();
+        if (size + count > ids.length) {
+            long[] grown = new long[Math.max(size + count, ids.length * 2)];
+            System.arraycopy(ids, 0, grown, 0, size);
+            ids = grown;
+        }
+        System.arraycopy(ids, position, ids, position + count, size - position);
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= items.size()) {
+            throw new IndexOutOfBoundsException("Wanted item at " + position + " but there are only "
+                    + items.size() + " items");
+        }
+    }
+}
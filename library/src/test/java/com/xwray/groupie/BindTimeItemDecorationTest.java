@@ -0,0 +1,44 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BindTimeItemDecorationTest {
+
+    private final BindTimeItemDecoration.Row row = new BindTimeItemDecoration.Row();
+
+    @Test
+    public void labelsShowLastBindAndBindCount() {
+        Item item = new DummyItem();
+        row.onBound(item, false, 1234567);
+        assertTrue(row.updateLabels());
+        assertEquals("1.23 ms  x1", row.costLabel.toString());
+        assertEquals("type 0 DummyItem", row.typeLabel);
+
+        row.onBound(item, true, 50000);
+        assertTrue(row.updateLabels());
+        assertEquals("0.05 ms  x2  payload", row.costLabel.toString());
+    }
+
+    @Test
+    public void labelsAreOnlyRebuiltAfterABind() {
+        row.onBound(new DummyItem(), false, 20000000);
+        row.updateLabels();
+
+        assertFalse(row.updateLabels());
+        assertEquals("20.00 ms  x1", row.costLabel.toString());
+    }
+
+    @Test
+    public void bindCountStartsAgainForANewItem() {
+        row.onBound(new DummyItem(), false, 1000000);
+        row.onBound(new DummyItem(), false, 1000000);
+        row.onBound(new DummyItem(), false, 1000000);
+        row.updateLabels();
+
+        assertEquals("1.00 ms  x1", row.costLabel.toString());
+    }
+}
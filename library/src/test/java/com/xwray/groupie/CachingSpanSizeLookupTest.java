@@ -0,0 +1,138 @@
+package com.xwray.groupie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingSpanSizeLookupTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private final List<SpanItem> items = new ArrayList<>();
+    private CachingSpanSizeLookup lookup;
+
+    static class SpanItem extends DummyItem {
+        final int spanSize;
+        int lookups = 0;
+
+        SpanItem(int spanSize) {
+            this.spanSize = spanSize;
+        }
+
+        @Override
+        public int getSpanSize(int spanCount, int position) {
+            lookups++;
+            return spanSize;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        when(groupAdapter.getSpanCount()).thenReturn(4);
+        when(groupAdapter.getItemCount()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return items.size();
+            }
+        });
+        when(groupAdapter.getItem(anyInt())).thenAnswer(new Answer<Item>() {
+            @Override
+            public Item answer(InvocationOnMock invocation) {
+                return items.get((int) invocation.getArgument(0));
+            }
+        });
+        for (int i = 1; i <= 4; i++) {
+            items.add(new SpanItem(i));
+        }
+        lookup = new CachingSpanSizeLookup(groupAdapter);
+    }
+
+    @Test
+    public void enablesGridLayoutManagerCaches() {
+        assertTrue(lookup.isSpanIndexCacheEnabled());
+        assertTrue(lookup.isSpanGroupIndexCacheEnabled());
+    }
+
+    @Test
+    public void spanSizeIsOnlyLookedUpOnce() {
+        assertEquals(3, lookup.getSpanSize(2));
+        assertEquals(3, lookup.getSpanSize(2));
+        assertEquals(1, items.get(2).lookups);
+    }
+
+    @Test
+    public void outOfRangePositionUsesFullSpan() {
+        assertEquals(4, lookup.getSpanSize(10));
+        assertEquals(4, lookup.getSpanSize(-1));
+    }
+
+    @Test
+    public void insertShiftsRememberedSizes() {
+        for (int i = 0; i < items.size(); i++) {
+            lookup.getSpanSize(i);
+        }
+        items.add(1, new SpanItem(2));
+        lookup.onItemRangeInserted(1, 1);
+
+        assertEquals(2, lookup.getSpanSize(1));
+        assertEquals(4, lookup.getSpanSize(4));
+        assertEquals(1, items.get(1).lookups);
+        assertEquals(1, items.get(4).lookups);
+    }
+
+    @Test
+    public void removeShiftsRememberedSizes() {
+        for (int i = 0; i < items.size(); i++) {
+            lookup.getSpanSize(i);
+        }
+        items.remove(0);
+        lookup.onItemRangeRemoved(0, 1);
+
+        assertEquals(2, lookup.getSpanSize(0));
+        assertEquals(1, items.get(0).lookups);
+    }
+
+    @Test
+    public void changeForgetsOnlyChangedRange() {
+        for (int i = 0; i < items.size(); i++) {
+            lookup.getSpanSize(i);
+        }
+        lookup.onItemRangeChanged(1, 2);
+        for (int i = 0; i < items.size(); i++) {
+            lookup.getSpanSize(i);
+        }
+
+        assertEquals(1, items.get(0).lookups);
+        assertEquals(2, items.get(1).lookups);
+        assertEquals(2, items.get(2).lookups);
+        assertEquals(1, items.get(3).lookups);
+    }
+
+    @Test
+    public void moveMovesRememberedSize() {
+        for (int i = 0; i < items.size(); i++) {
+            lookup.getSpanSize(i);
+        }
+        items.add(3, items.remove(0));
+        lookup.onItemMoved(0, 3);
+
+        assertEquals(1, lookup.getSpanSize(3));
+        assertEquals(2, lookup.getSpanSize(0));
+        assertEquals(1, items.get(3).lookups);
+        assertEquals(1, items.get(0).lookups);
+    }
+}
@@ -0,0 +1,116 @@
+package com.xwray.groupie;
+
+import android.os.Parcelable;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CarouselHelperTest {
+
+    private RecyclerView carousel() {
+        RecyclerView carousel = mock(RecyclerView.class);
+        when(carousel.getLayoutManager()).thenReturn(mock(LinearLayoutManager.class));
+        return carousel;
+    }
+
+    private static LinearLayoutManager layoutManager(RecyclerView carousel) {
+        return (LinearLayoutManager) carousel.getLayoutManager();
+    }
+
+    @Test
+    public void carouselsShareOnePool() {
+        CarouselHelper helper = new CarouselHelper(300);
+        RecyclerView carousel = carousel();
+
+        helper.bind(carousel, new DummyItem(1));
+
+        verify(carousel).setRecycledViewPool(helper.getRecycledViewPool());
+        verify(layoutManager(carousel)).setRecycleChildrenOnDetach(true);
+    }
+
+    @Test
+    public void prefetchesCardsWhichFitAcross() {
+        CarouselHelper helper = new CarouselHelper(300);
+
+        assertEquals(5, helper.getPrefetchCount(1000));
+        assertEquals(4, helper.getPrefetchCount(900));
+    }
+
+    @Test
+    public void prefetchIsLeftAloneUntilWidthIsKnown() {
+        CarouselHelper helper = new CarouselHelper(300);
+        RecyclerView carousel = carousel();
+
+        helper.bind(carousel, new DummyItem(1));
+
+        verify(layoutManager(carousel), never()).setInitialPrefetchItemCount(anyInt());
+    }
+
+    @Test
+    public void scrollStateIsRestoredById() {
+        CarouselHelper helper = new CarouselHelper(300);
+        RecyclerView first = carousel();
+        Parcelable state = mock(Parcelable.class);
+        when(layoutManager(first).onSaveInstanceState()).thenReturn(state);
+        helper.bind(first, new DummyItem(7));
+        helper.unbind(first, new DummyItem(7));
+
+        RecyclerView second = carousel();
+        helper.bind(second, new DummyItem(7));
+
+        verify(layoutManager(second)).onRestoreInstanceState(state);
+        verify(layoutManager(second), never()).scrollToPosition(anyInt());
+    }
+
+    @Test
+    public void newCarouselStartsAtTheBeginning() {
+        CarouselHelper helper = new CarouselHelper(300);
+        RecyclerView carousel = carousel();
+
+        helper.bind(carousel, new DummyItem(1));
+
+        verify(layoutManager(carousel)).scrollToPosition(0);
+    }
+
+    @Test
+    public void rebindingSameItemKeepsPosition() {
+        CarouselHelper helper = new CarouselHelper(300);
+        RecyclerView carousel = carousel();
+        helper.bind(carousel, new DummyItem(1));
+
+        helper.bind(carousel, new DummyItem(1));
+
+        verify(layoutManager(carousel)).scrollToPosition(0);
+        verify(layoutManager(carousel), never()).onRestoreInstanceState(any(Parcelable.class));
+    }
+
+    @Test
+    public void leastRecentlySavedStatesAreForgotten() {
+        CarouselHelper helper = new CarouselHelper(300, 2);
+        RecyclerView carousel = carousel();
+        when(layoutManager(carousel).onSaveInstanceState()).thenReturn(mock(Parcelable.class));
+        for (long id = 1; id <= 3; id++) {
+            helper.bind(carousel, new DummyItem(id));
+            helper.unbind(carousel, new DummyItem(id));
+        }
+        assertEquals(2, helper.getSavedStateCount());
+
+        RecyclerView other = carousel();
+        helper.bind(other, new DummyItem(1));
+
+        verify(layoutManager(other)).scrollToPosition(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeMaskTest {
+
+    private static final long TITLE = 1L;
+    private static final long PRICE = 1L << 1;
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private static class ProductItem extends DummyItem {
+        final String title;
+        final int price;
+
+        ProductItem(long id, String title, int price) {
+            super(id);
+            this.title = title;
+            this.price = price;
+        }
+
+        @Override
+        public boolean hasSameContentAs(Item other) {
+            return getChangedFields(other) == 0L;
+        }
+
+        @Override
+        public long getChangedFields(Item newItem) {
+            ProductItem other = (ProductItem) newItem;
+            long changed = 0L;
+            if (!title.equals(other.title)) changed |= TITLE;
+            if (price != other.price) changed |= PRICE;
+            return changed;
+        }
+    }
+
+    @Test
+    public void mergeOrsMasks() {
+        long merged = ChangeMask.merge(Arrays.<Object>asList(ChangeMask.of(TITLE), ChangeMask.of(PRICE)));
+
+        assertEquals(TITLE | PRICE, merged);
+    }
+
+    @Test
+    public void mergeWithoutPayloadsIsFullRebind() {
+        assertEquals(ChangeMask.ALL_FIELDS, ChangeMask.merge(Collections.emptyList()));
+    }
+
+    @Test
+    public void mergeWithOtherPayloadIsFullRebind() {
+        long merged = ChangeMask.merge(Arrays.<Object>asList(ChangeMask.of(TITLE), "other"));
+
+        assertEquals(ChangeMask.ALL_FIELDS, merged);
+    }
+
+    @Test
+    public void itemsWithoutFieldsUseTheirOwnPayload() {
+        Item item = new DummyItem(1);
+
+        assertNull(ChangeMask.getChangePayload(item, new DummyItem(1)));
+    }
+
+    @Test
+    public void diffSendsMaskOfChangedFields() {
+        Section section = new Section(Arrays.asList(
+                new ProductItem(1, "Apple", 10),
+                new ProductItem(2, "Pear", 20)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.update(Arrays.asList(
+                new ProductItem(1, "Apple", 10),
+                new ProductItem(2, "Pear", 25)));
+
+        verify(groupAdapter).onItemRangeChanged(eq(section), eq(1), eq(1), eq(ChangeMask.of(PRICE)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.xwray.groupie;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class DeferredBinderTest {
+
+    @Mock
+    RecyclerView recyclerView;
+
+    private final List<Integer> deferredBinds = new ArrayList<>();
+    private final List<Runnable> frames = new ArrayList<>();
+    private final List<View> framesRemovedFrom = new ArrayList<>();
+    private DeferredBinder binder;
+
+    class DeferredItem extends DummyItem {
+        @Override
+        public boolean hasDeferredBind() {
+            return true;
+        }
+
+        @Override
+        public void bindDeferred(@NonNull GroupieViewHolder viewHolder, int position) {
+            deferredBinds.add(position);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        binder = new DeferredBinder() {
+            @Override
+            void postOnAnimation(@NonNull View view, @NonNull Runnable frame) {
+                frames.add(frame);
+            }
+
+            @Override
+            void removeCallbacks(@NonNull View view, @NonNull Runnable frame) {
+                framesRemovedFrom.add(view);
+                frames.remove(frame);
+            }
+        };
+        binder.onAttachedToRecyclerView(recyclerView);
+    }
+
+    private GroupieViewHolder bind(int position) {
+        View itemView = mock(View.class);
+        GroupieViewHolder viewHolder = new GroupieViewHolder(itemView);
+        viewHolder.bind(new DeferredItem(), null, null);
+        when(recyclerView.getChildAdapterPosition(itemView)).thenReturn(position);
+        binder.add(viewHolder, position);
+        return viewHolder;
+    }
+
+    private void runFrame() {
+        assertFalse("No frame was posted", frames.isEmpty());
+        frames.remove(0).run();
+    }
+
+    @Test
+    public void bindsAreDeferredToTheNextFrame() {
+        bind(0);
+        assertTrue(deferredBinds.isEmpty());
+
+        runFrame();
+
+        assertEquals(Collections.singletonList(0), deferredBinds);
+    }
+
+    @Test
+    public void bindsOverBudgetAreSpreadAcrossFramesNearestFirst() {
+        binder.setFrameBudgetMillis(0);
+        bind(5);
+        bind(1);
+        bind(3);
+
+        runFrame();
+        assertEquals(Collections.singletonList(1), deferredBinds);
+
+        runFrame();
+        runFrame();
+        assertEquals(Arrays.asList(1, 3, 5), deferredBinds);
+    }
+
+    @Test
+    public void recycledViewHolderIsNotBound() {
+        GroupieViewHolder recycled = bind(0);
+        bind(1);
+        binder.remove(recycled);
+
+        runFrame();
+
+        assertEquals(Collections.singletonList(1), deferredBinds);
+    }
+
+    @Test
+    public void detachingDropsPendingBinds() {
+        GroupieViewHolder viewHolder = bind(0);
+
+        binder.onDetachedFromRecyclerView(recyclerView);
+        binder.onAttachedToRecyclerView(recyclerView);
+
+        bind(1);
+        runFrame();
+
+        assertFalse(viewHolder.deferredBindPending);
+        assertEquals(Collections.singletonList(1), deferredBinds);
+    }
+
+    @Test
+    public void detachingFromAnotherRecyclerViewCancelsTheFramePostedEarlier() {
+        bind(0);
+        Runnable frame = frames.get(0);
+        RecyclerView other = mock(RecyclerView.class);
+        binder.onAttachedToRecyclerView(other);
+
+        binder.onDetachedFromRecyclerView(other);
+        // In case the frame was already on its way when it was removed
+        frame.run();
+
+        assertEquals(Collections.<View>singletonList(recyclerView), framesRemovedFrom);
+        assertTrue(frames.isEmpty());
+        assertTrue(deferredBinds.isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DequeSectionTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    @Test
+    public void prependNotifiesSingleRangeAtStart() {
+        DummyItem existing = new DummyItem();
+        DequeSection section = new DequeSection(Arrays.asList(existing));
+        section.registerGroupDataObserver(groupAdapter);
+
+        DummyItem first = new DummyItem();
+        DummyItem second = new DummyItem();
+        section.addAll(0, Arrays.asList(first, second));
+
+        assertEquals(Arrays.asList(first, second, existing), section.getItems());
+        verify(groupAdapter).onItemRangeInserted(section, 0, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void appendNotifiesSingleRangeAtEnd() {
+        DequeSection section = new DequeSection(Arrays.asList(new DummyItem(), new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.addAll(Arrays.asList(new DummyItem(), new DummyItem(), new DummyItem()));
+
+        assertEquals(5, section.getItemCount());
+        verify(groupAdapter).onItemRangeInserted(section, 2, 3);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void childChangesAreNotifiedAtTheirPositionAfterPrepending() {
+        DummyItem item = new DummyItem();
+        DequeSection section = new DequeSection(Arrays.asList(item));
+        section.addAll(0, Arrays.asList(new DummyItem(), new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(section, 2);
+    }
+
+    @Test
+    public void matchesListThroughMixedEdits() {
+        DequeSection section = new DequeSection();
+        List<Item> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 3 && !expected.isEmpty()) {
+                Item removed = expected.remove(random.nextInt(expected.size()));
+                section.remove(removed);
+            } else {
+                int position = operation == 0 ? 0 : operation == 1 ? expected.size() : random.nextInt(expected.size() + 1);
+                List<Item> added = Arrays.<Item>asList(new DummyItem(), new DummyItem(), new DummyItem());
+                expected.addAll(position, added);
+                section.addAll(position, added);
+            }
+        }
+
+        assertEquals(expected.size(), section.getItemCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), section.getItem(i));
+            assertEquals(i, section.getPosition(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void removeNotifiesRemovedPosition() {
+        DummyItem item = new DummyItem();
+        DequeSection section = new DequeSection(Arrays.asList(new DummyItem(), item, new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.remove(item);
+
+        assertEquals(2, section.getItemCount());
+        verify(groupAdapter).onItemRemoved(section, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+}
@@ -0,0 +1,71 @@
+package com.xwray.groupie;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DiffCallbackTest {
+
+    @Mock
+    Context context;
+
+    private final List<Long> precomputedIds = new ArrayList<>();
+
+    class PrecomputingItem extends ContentUpdatingItem {
+        PrecomputingItem(int id, String content) {
+            super(id, content);
+        }
+
+        @Override
+        public void precompute(@NonNull Context context) {
+            precomputedIds.add(getId());
+        }
+    }
+
+    @Test
+    public void newAndChangedItemsAreTracked() {
+        List<Item> oldItems = Arrays.<Item>asList(
+                new ContentUpdatingItem(1, "unchanged"), new ContentUpdatingItem(2, "old"));
+        List<Item> newItems = Arrays.<Item>asList(
+                new ContentUpdatingItem(1, "unchanged"), new ContentUpdatingItem(2, "new"),
+                new ContentUpdatingItem(3, "inserted"));
+        DiffCallback callback = new DiffCallback(oldItems, newItems);
+        callback.trackContentChanges();
+
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(callback);
+
+        assertFalse(callback.isNewOrChanged(diffResult, 0));
+        assertTrue(callback.isNewOrChanged(diffResult, 1));
+        assertTrue(callback.isNewOrChanged(diffResult, 2));
+    }
+
+    @Test
+    public void onlyNewAndChangedItemsArePrecomputed() {
+        List<Item> oldItems = Arrays.<Item>asList(
+                new PrecomputingItem(1, "unchanged"), new PrecomputingItem(2, "old"));
+        List<Item> newItems = Arrays.<Item>asList(
+                new PrecomputingItem(1, "unchanged"), new PrecomputingItem(2, "new"),
+                new PrecomputingItem(3, "inserted"));
+        DiffCallback callback = new DiffCallback(oldItems, newItems);
+        callback.trackContentChanges();
+
+        callback.precomputeNewOrChanged(DiffUtil.calculateDiff(callback), context);
+
+        assertEquals(Arrays.asList(2L, 3L), precomputedIds);
+    }
+}
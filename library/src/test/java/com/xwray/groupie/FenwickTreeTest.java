@@ -0,0 +1,73 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FenwickTreeTest {
+
+    private static FenwickTree treeOf(int... values) {
+        FenwickTree tree = new FenwickTree();
+        for (int value : values) {
+            tree.append(value);
+        }
+        return tree;
+    }
+
+    @Test
+    public void prefixSumsMatchValues() {
+        FenwickTree tree = treeOf(3, 0, 2, 5, 1);
+
+        assertEquals(0, tree.prefixSum(0));
+        assertEquals(3, tree.prefixSum(1));
+        assertEquals(5, tree.prefixSum(3));
+        assertEquals(11, tree.total());
+    }
+
+    @Test
+    public void indexOfSkipsEmptyValues() {
+        FenwickTree tree = treeOf(3, 0, 2);
+
+        assertEquals(0, tree.indexOf(2));
+        assertEquals(2, tree.indexOf(3));
+        assertEquals(-1, tree.indexOf(5));
+        assertEquals(-1, tree.indexOf(-1));
+    }
+
+    @Test
+    public void setUpdatesLaterSums() {
+        FenwickTree tree = treeOf(1, 1, 1, 1);
+        tree.set(1, 4);
+
+        assertEquals(4, tree.get(1));
+        assertEquals(6, tree.prefixSum(3));
+        assertEquals(2, tree.indexOf(5));
+    }
+
+    @Test
+    public void insertAndRemoveShiftValues() {
+        FenwickTree tree = treeOf(1, 2, 3);
+        tree.insert(1, 10);
+
+        assertEquals(4, tree.size());
+        assertEquals(10, tree.get(1));
+        assertEquals(2, tree.get(2));
+
+        tree.removeRange(0, 2);
+        assertEquals(2, tree.size());
+        assertEquals(2, tree.get(0));
+        assertEquals(5, tree.total());
+    }
+
+    @Test
+    public void manyAppendsKeepSumsConsistent() {
+        FenwickTree tree = new FenwickTree();
+        int expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            tree.append(i % 5);
+            expected += i % 5;
+            assertEquals(expected, tree.prefixSum(i + 1));
+        }
+        assertEquals(expected, tree.total());
+    }
+}
@@ -0,0 +1,177 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FilteredGroupTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private static class TextItem extends DummyItem {
+        String text;
+
+        TextItem(String text) {
+            this.text = text;
+        }
+    }
+
+    private static class CountingPredicate implements FilteredGroup.Predicate {
+        final String query;
+        int tests = 0;
+
+        CountingPredicate(String query) {
+            this.query = query;
+        }
+
+        @Override
+        public boolean test(Item item) {
+            tests++;
+            return ((TextItem) item).text.contains(query);
+        }
+    }
+
+    private Section source(String... texts) {
+        List<Item> items = new ArrayList<>();
+        for (String text : texts) {
+            items.add(new TextItem(text));
+        }
+        return new Section(items);
+    }
+
+    @Test
+    public void showsOnlyMatchingItems() {
+        Section source = source("apple", "banana", "apricot", "cherry");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("ap"));
+
+        assertEquals(2, filtered.getItemCount());
+        assertSame(source.getItem(0), filtered.getItem(0));
+        assertSame(source.getItem(2), filtered.getItem(1));
+    }
+
+    @Test
+    public void setPredicateNotifiesMinimalRanges() {
+        Section source = source("a1", "a2", "b1", "b2", "a3");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("a"));
+        filtered.registerGroupDataObserver(groupAdapter);
+
+        filtered.setPredicate(new CountingPredicate("2"));
+
+        assertEquals(2, filtered.getItemCount());
+        InOrder inOrder = inOrder(groupAdapter);
+        inOrder.verify(groupAdapter).onItemRangeRemoved(filtered, 0, 1);
+        inOrder.verify(groupAdapter).onItemRangeInserted(filtered, 1, 1);
+        inOrder.verify(groupAdapter).onItemRangeRemoved(filtered, 2, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void narrowingOnlyTestsCurrentMatches() {
+        Section source = source("cat", "car", "dog", "cart", "cow");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("ca"));
+        filtered.registerGroupDataObserver(groupAdapter);
+
+        CountingPredicate narrower = new CountingPredicate("car");
+        filtered.narrowPredicate(narrower);
+
+        assertEquals(3, narrower.tests);
+        assertEquals(2, filtered.getItemCount());
+        verify(groupAdapter).onItemRangeRemoved(filtered, 0, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void sourceInsertsAreFilteredIncrementally() {
+        Section source = source("a1", "b1");
+        CountingPredicate predicate = new CountingPredicate("a");
+        FilteredGroup filtered = new FilteredGroup(source, predicate);
+        filtered.registerGroupDataObserver(groupAdapter);
+        predicate.tests = 0;
+
+        source.add(0, new TextItem("a0"));
+        source.add(0, new TextItem("b0"));
+
+        assertEquals(2, predicate.tests);
+        assertEquals(2, filtered.getItemCount());
+        assertEquals("a0", ((TextItem) filtered.getItem(0)).text);
+        verify(groupAdapter).onItemRangeInserted(filtered, 0, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void sourceRemovesAreFilteredIncrementally() {
+        Section source = source("a1", "b1", "a2");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("a"));
+        filtered.registerGroupDataObserver(groupAdapter);
+
+        source.remove(source.getGroup(1));
+        source.remove(source.getGroup(0));
+
+        assertEquals(1, filtered.getItemCount());
+        assertEquals("a2", ((TextItem) filtered.getItem(0)).text);
+        verify(groupAdapter).onItemRangeRemoved(filtered, 0, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void changedItemIsRetestedAndNotified() {
+        Section source = source("a1", "b1", "a2");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("a"));
+        filtered.registerGroupDataObserver(groupAdapter);
+
+        TextItem first = (TextItem) source.getItem(0);
+        first.notifyChanged("payload");
+        TextItem second = (TextItem) source.getItem(1);
+        second.text = "a3";
+        second.notifyChanged();
+
+        InOrder inOrder = inOrder(groupAdapter);
+        inOrder.verify(groupAdapter).onItemRangeChanged(filtered, 0, 1, "payload");
+        inOrder.verify(groupAdapter).onItemRangeInserted(filtered, 1, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void sourceReplaceAllRefilters() {
+        Section source = source("a1", "b1", "a2", "b2");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("a"));
+
+        List<Item> reordered = new ArrayList<>(Arrays.asList(
+                source.getItem(3), source.getItem(2), source.getItem(1), new TextItem("a4")));
+        source.replaceAll(reordered);
+
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < filtered.getItemCount(); i++) {
+            texts.add(((TextItem) filtered.getItem(i)).text);
+        }
+        assertEquals(Arrays.asList("a2", "a4"), texts);
+    }
+
+    @Test
+    public void releasedGroupStopsFollowingTheSource() {
+        Section source = source("a1", "b1");
+        FilteredGroup filtered = new FilteredGroup(source, new CountingPredicate("a"));
+        filtered.registerGroupDataObserver(groupAdapter);
+
+        filtered.release();
+        filtered.release();
+        source.add(new TextItem("a2"));
+
+        assertEquals(1, filtered.getItemCount());
+        verifyNoMoreInteractions(groupAdapter);
+    }
+}
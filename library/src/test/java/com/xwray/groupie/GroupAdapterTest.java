@@ -6,12 +6,31 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import android.content.Context;
+
+import androidx.recyclerview.widget.RecyclerView;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GroupAdapterTest {
@@ -54,4 +73,257 @@ public class GroupAdapterTest {
         assertEquals(2, groupAdapter.getItemCount());
     }
 
+
+    @Test
+    public void bindsAreTimedWithListener() {
+        DummyItem item = new DummyItem();
+        groupAdapter.add(item);
+        TimingListener timingListener = mock(TimingListener.class);
+        GroupieViewHolder viewHolder = mock(GroupieViewHolder.class);
+        groupAdapter.setTimingListener(timingListener);
+
+        groupAdapter.onBindViewHolder(viewHolder, 0, Collections.emptyList());
+        groupAdapter.onBindViewHolder(viewHolder, 0, Collections.<Object>singletonList("payload"));
+
+        verify(timingListener).onViewHolderBound(eq(viewHolder), eq(item), eq(false), anyLong());
+        verify(timingListener).onViewHolderBound(eq(viewHolder), eq(item), eq(true), anyLong());
+    }
+
+    @Test
+    public void onlySampledBindsAreTimed() {
+        DummyItem item = new DummyItem();
+        groupAdapter.add(item);
+        TimingListener timingListener = mock(TimingListener.class);
+        GroupieViewHolder viewHolder = mock(GroupieViewHolder.class);
+        groupAdapter.setTimingListener(timingListener, 3);
+
+        for (int i = 0; i < 7; i++) {
+            groupAdapter.onBindViewHolder(viewHolder, 0, Collections.emptyList());
+        }
+
+        verify(timingListener, times(3)).onViewHolderBound(eq(viewHolder), eq(item), eq(false), anyLong());
+    }
+
+    @Test
+    public void removingTimingListenerStopsTiming() {
+        groupAdapter.add(new DummyItem());
+        TimingListener timingListener = mock(TimingListener.class);
+        groupAdapter.setTimingListener(timingListener);
+        groupAdapter.setTimingListener(null);
+
+        groupAdapter.onBindViewHolder(mock(GroupieViewHolder.class), 0, Collections.emptyList());
+
+        verifyNoInteractions(timingListener);
+    }
+
+    @Test
+    public void stableIdsAreItemIds() {
+        groupAdapter.enableStableIds(false);
+        groupAdapter.add(new Section(Arrays.asList(new DummyItem(5), new DummyItem(7))));
+
+        assertTrue(groupAdapter.hasStableIds());
+        assertEquals(7, groupAdapter.getItemId(1));
+    }
+
+    @Test
+    public void duplicateIdsAreRejectedBeforeAnythingChanges() {
+        groupAdapter.enableStableIds(true);
+        groupAdapter.add(new Section(Arrays.asList(new DummyItem(1), new DummyItem(2))));
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        try {
+            groupAdapter.add(new Section(Arrays.asList(new DummyItem(3), new DummyItem(2))));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            groupAdapter.update(Collections.singletonList(
+                    new Section(Arrays.asList(new DummyItem(4), new DummyItem(4)))));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        assertEquals(1, groupAdapter.getGroupCount());
+        assertEquals(2, groupAdapter.getItemCount());
+        verifyNoInteractions(observer);
+    }
+
+    @Test
+    public void duplicateIdAddedInsideGroupIsRejectedAfterNotifying() {
+        groupAdapter.enableStableIds(true);
+        Section section = new Section(Collections.singletonList(new DummyItem(1)));
+        groupAdapter.add(section);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        try {
+            section.add(new DummyItem(1));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        verify(observer).onItemRangeInserted(1, 1);
+    }
+
+    @Test
+    public void updateItemsReplacesTopLevelAndSectionItemsWithoutDiffing() {
+        DummyItem topLevel = new DummyItem(1);
+        Section section = new Section(Arrays.asList(new DummyItem(2), new DummyItem(3)));
+        groupAdapter.add(topLevel);
+        groupAdapter.add(section);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        DummyItem newTopLevel = new DummyItem(1);
+        DummyItem newInSection = new DummyItem(3);
+        int replaced = groupAdapter.updateItems(Arrays.<Item>asList(newInSection, newTopLevel));
+
+        assertEquals(2, replaced);
+        assertSame(newTopLevel, groupAdapter.getItem(0));
+        assertSame(newInSection, groupAdapter.getItem(2));
+        verify(observer).onItemRangeChanged(0, 1, null);
+        verify(observer).onItemRangeChanged(2, 1, null);
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void updateItemsWithSameContentOnlyDropsTheSnapshot() {
+        Section section = new Section(Collections.singletonList(new ContentUpdatingItem(2, "b")));
+        groupAdapter.add(new ContentUpdatingItem(1, "a"));
+        groupAdapter.add(section);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        groupAdapter.displayedItems = GroupSnapshot.of(Arrays.<Group>asList(new DummyItem(1), section));
+        groupAdapter.updateItems(Collections.singletonList(new ContentUpdatingItem(1, "a")));
+        assertNull(groupAdapter.displayedItems);
+
+        groupAdapter.displayedItems = GroupSnapshot.of(Arrays.<Group>asList(new DummyItem(1), section));
+        groupAdapter.updateItems(Collections.singletonList(new ContentUpdatingItem(2, "b")));
+        assertNull(groupAdapter.displayedItems);
+
+        verifyNoInteractions(observer);
+    }
+
+    @Test
+    public void updateItemsWithItemAlreadyInPlaceNotifiesNothing() {
+        ContentUpdatingItem item = new ContentUpdatingItem(1, "a");
+        groupAdapter.add(item);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        groupAdapter.updateItems(Collections.singletonList(item));
+
+        verifyNoInteractions(observer);
+    }
+
+    @Test
+    public void updateItemsRejectsReplacementsWhichAreNotTheSame() {
+        DummyItem item = new DummyItem(1);
+        groupAdapter.add(item);
+
+        try {
+            groupAdapter.updateItems(Collections.singletonList(new DummyItem(1) {
+                @Override
+                public int getLayout() {
+                    return 7;
+                }
+            }));
+            fail("A replacement with another view type was accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertSame(item, groupAdapter.getItem(0));
+    }
+
+    @Test
+    public void staleAsyncResultIsDiffedAgainInTheBackground() {
+        final List<Collection<? extends Group>> diffed = new ArrayList<>();
+        groupAdapter.asyncDiffUtil = new AsyncDiffUtil(groupAdapter.diffUtilCallbacks) {
+            @Override
+            void calculateDiff(Collection<? extends Group> newGroups, DiffCallback diffUtilCallback,
+                               OnAsyncUpdateListener onAsyncUpdateListener, boolean detectMoves,
+                               Context precomputeContext) {
+                diffed.add(newGroups);
+            }
+        };
+        DummyItem kept = new DummyItem(1);
+        groupAdapter.add(kept);
+        OnAsyncUpdateListener listener = mock(OnAsyncUpdateListener.class);
+        List<Group> newGroups = Arrays.<Group>asList(kept, new DummyItem(2));
+        groupAdapter.updateAsync(newGroups, listener);
+
+        // A structural change while the diff runs makes its result stale
+        groupAdapter.add(new DummyItem(3));
+        assertTrue(groupAdapter.diffUtilCallbacks.isAsyncResultStale());
+        groupAdapter.diffUtilCallbacks.onAsyncResultStale(newGroups, true, listener);
+
+        assertEquals(2, diffed.size());
+        assertSame(newGroups, diffed.get(1));
+        assertEquals(2, groupAdapter.getItemCount());
+        assertFalse(groupAdapter.diffUtilCallbacks.isAsyncResultStale());
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    public void asyncResultWhichKeepsGoingStaleIsSwappedInWithoutDiffing() {
+        final List<Collection<? extends Group>> diffed = new ArrayList<>();
+        groupAdapter.asyncDiffUtil = new AsyncDiffUtil(groupAdapter.diffUtilCallbacks) {
+            @Override
+            void calculateDiff(Collection<? extends Group> newGroups, DiffCallback diffUtilCallback,
+                               OnAsyncUpdateListener onAsyncUpdateListener, boolean detectMoves,
+                               Context precomputeContext) {
+                diffed.add(newGroups);
+            }
+        };
+        groupAdapter.add(new DummyItem(1));
+        OnAsyncUpdateListener listener = mock(OnAsyncUpdateListener.class);
+        List<Group> newGroups = Arrays.<Group>asList(new DummyItem(2), new DummyItem(3));
+        groupAdapter.updateAsync(newGroups, listener);
+        groupAdapter.diffUtilCallbacks.onAsyncResultStale(newGroups, true, listener);
+        groupAdapter.diffUtilCallbacks.onAsyncResultStale(newGroups, true, listener);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        groupAdapter.diffUtilCallbacks.onAsyncResultStale(newGroups, true, listener);
+
+        assertEquals(3, diffed.size());
+        assertSame(newGroups.get(1), groupAdapter.getItem(1));
+        verify(observer).onChanged();
+        verifyNoMoreInteractions(observer);
+        verify(listener).onUpdateComplete();
+    }
+
+    @Test
+    public void updatesAreNotDiffedWhileDetached() {
+        groupAdapter.add(new Section(Arrays.asList(new DummyItem(1), new DummyItem(2))));
+        groupAdapter.setPausesUpdatesWhileDetached(true);
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        Section newSection = new Section(Arrays.asList(new DummyItem(1), new DummyItem(3), new DummyItem(4)));
+        groupAdapter.update(Collections.singletonList(newSection));
+
+        assertEquals(3, groupAdapter.getItemCount());
+        assertSame(newSection, groupAdapter.getTopLevelGroup(0));
+        verify(observer).onChanged();
+        verifyNoMoreInteractions(observer);
+    }
+
+    @Test
+    public void updatesAreDiffedAgainOnceAttached() {
+        Item item = new DummyItem(1);
+        groupAdapter.add(new Section(Collections.singletonList(item)));
+        groupAdapter.setPausesUpdatesWhileDetached(true);
+        groupAdapter.onAttachedToRecyclerView(mock(RecyclerView.class));
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        groupAdapter.registerAdapterDataObserver(observer);
+
+        groupAdapter.update(Collections.singletonList(
+                new Section(Arrays.asList(item, new DummyItem(2)))));
+
+        verify(observer).onItemRangeInserted(1, 1);
+        verifyNoMoreInteractions(observer);
+    }
 }
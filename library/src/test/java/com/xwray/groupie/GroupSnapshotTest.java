@@ -0,0 +1,92 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class GroupSnapshotTest {
+
+    @Test
+    public void flattensNestedGroupsInOrder() {
+        Item header = new DummyItem();
+        Item first = new DummyItem();
+        Item second = new DummyItem();
+        Item last = new DummyItem();
+        Section section = new Section(header, Arrays.asList(first, second));
+
+        GroupSnapshot snapshot = GroupSnapshot.of(Arrays.<Group>asList(section, last));
+
+        assertEquals(4, snapshot.size());
+        assertSame(header, snapshot.getItem(0));
+        assertSame(first, snapshot.getItem(1));
+        assertSame(second, snapshot.getItem(2));
+        assertSame(last, snapshot.getItem(3));
+    }
+
+    @Test
+    public void itemsAreLookedUpByPositionOnlyInOpaqueGroups() {
+        final int[] sectionLookups = {0};
+        final int[] opaqueLookups = {0};
+        final Item opaqueItem = new DummyItem();
+        Section section = new Section(Arrays.asList(new DummyItem(), new Section(Arrays.asList(new DummyItem(), new DummyItem())))) {
+            @Override
+            public Item getItem(int position) {
+                sectionLookups[0]++;
+                return super.getItem(position);
+            }
+        };
+        Group opaque = new DummyGroup() {
+            @Override
+            public int getItemCount() {
+                return 2;
+            }
+
+            @Override
+            public Item getItem(int position) {
+                opaqueLookups[0]++;
+                return opaqueItem;
+            }
+        };
+
+        GroupSnapshot snapshot = GroupSnapshot.of(Arrays.asList(section, opaque));
+
+        assertEquals(5, snapshot.size());
+        assertSame(opaqueItem, snapshot.getItem(4));
+        assertEquals(0, sectionLookups[0]);
+        assertEquals(2, opaqueLookups[0]);
+    }
+
+    @Test
+    public void laterChangesToGroupsAreNotSeen() {
+        Item first = new DummyItem();
+        Item second = new DummyItem();
+        Section section = new Section(Arrays.asList(first, second));
+        GroupSnapshot snapshot = GroupSnapshot.of(Arrays.<Group>asList(section));
+
+        section.remove(first);
+        section.add(new DummyItem());
+        section.add(new DummyItem());
+
+        assertEquals(2, snapshot.size());
+        assertSame(first, snapshot.getItem(0));
+        assertSame(second, snapshot.getItem(1));
+    }
+
+    @Test
+    public void diffReadsSnapshotsNotGroups() {
+        Section oldSection = new Section(Arrays.asList(new DummyItem(1), new DummyItem(2)));
+        Section newSection = new Section(Arrays.asList(new DummyItem(1), new DummyItem(2), new DummyItem(3)));
+        DiffCallback callback = new DiffCallback(
+                GroupSnapshot.of(Arrays.<Group>asList(oldSection)),
+                GroupSnapshot.of(Arrays.<Group>asList(newSection)));
+
+        newSection.clear();
+
+        assertEquals(2, callback.getOldListSize());
+        assertEquals(3, callback.getNewListSize());
+        assertEquals(3, callback.getNewItem(2).getId());
+    }
+}
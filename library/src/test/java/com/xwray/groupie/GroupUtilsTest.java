@@ -5,8 +5,11 @@ import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -47,6 +50,74 @@ public class GroupUtilsTest {
         assertEquals(15, GroupUtils.getItemCount(groups));
     }
 
+    @Test
+    public void flattenWalksNestedGroupsInOrder() {
+        Item header = new DummyItem();
+        Item first = new DummyItem();
+        Item second = new DummyItem();
+        Item last = new DummyItem();
+        Section inner = new Section(Arrays.asList(first, second));
+        Section outer = new Section(header, Collections.singletonList(inner));
+
+        Item[] items = GroupUtils.flatten(Arrays.<Group>asList(outer, last));
+
+        assertArrayEquals(new Item[]{header, first, second, last}, items);
+    }
+
+    @Test
+    public void flattenAsksOtherGroupsForEachItem() {
+        Group group = createMockGroup(2);
+        Item first = new DummyItem();
+        Item second = new DummyItem();
+        when(group.getItem(0)).thenReturn(first);
+        when(group.getItem(1)).thenReturn(second);
+
+        assertArrayEquals(new Item[]{first, second}, GroupUtils.flatten(Collections.singletonList(group)));
+    }
+
+    @Test
+    public void flattenAsksNestedGroupsWhichHideChildrenForEachItem() {
+        final Item shown = new DummyItem();
+        final Item hidden = new DummyItem();
+        Section hiding = new Section(Arrays.asList(shown, hidden)) {
+            @Override
+            public int getItemCount() {
+                return 1;
+            }
+
+            @Override
+            public Item getItem(int position) {
+                return shown;
+            }
+        };
+        Item last = new DummyItem();
+
+        Item[] items = GroupUtils.flatten(Arrays.<Group>asList(hiding, last));
+
+        assertArrayEquals(new Item[]{shown, last}, items);
+    }
+
+    @Test
+    public void flattenAsksNestedGroupsWithExtraItemsForEachItem() {
+        final Item child = new DummyItem();
+        final Item extra = new DummyItem();
+        Section adding = new Section(Collections.singletonList(child)) {
+            @Override
+            public int getItemCount() {
+                return 2;
+            }
+
+            @Override
+            public Item getItem(int position) {
+                return position == 0 ? child : extra;
+            }
+        };
+
+        Item[] items = GroupUtils.flatten(Collections.<Group>singletonList(adding));
+
+        assertArrayEquals(new Item[]{child, extra}, items);
+    }
+
     private Group createMockGroup(int itemCount) {
         final Group mock = mock(Group.class);
 
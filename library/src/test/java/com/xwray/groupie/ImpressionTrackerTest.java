@@ -0,0 +1,119 @@
+package com.xwray.groupie;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImpressionTrackerTest {
+
+    private final List<Long> impressions = new ArrayList<>();
+    private int batches;
+    private ImpressionTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new ImpressionTracker(new OnImpressionListener() {
+            @Override
+            public void onImpressions(long[] itemIds, int count) {
+                batches++;
+                for (int i = 0; i < count; i++) {
+                    impressions.add(itemIds[i]);
+                }
+            }
+        }, 0.5f, 1000);
+    }
+
+    private void frame(long nowMillis, long... visibleIds) {
+        tracker.beginFrame(nowMillis);
+        for (long id : visibleIds) {
+            tracker.onItemVisible(id, 1f);
+        }
+        tracker.endFrame();
+    }
+
+    @Test
+    public void itemVisibleLongEnoughIsAnImpression() {
+        frame(5000, 1);
+        frame(5999, 1);
+        assertTrue(impressions.isEmpty());
+
+        frame(6000, 1);
+        assertEquals(Arrays.asList(1L), impressions);
+    }
+
+    @Test
+    public void impressionsInOneFrameAreBatched() {
+        frame(0, 1, 2, 3);
+        frame(1000, 1, 2, 3);
+
+        assertEquals(1, batches);
+        assertEquals(Arrays.asList(1L, 2L, 3L), impressions);
+    }
+
+    @Test
+    public void itemIsOnlyCountedOncePerVisiblePeriod() {
+        frame(0, 1);
+        frame(1000, 1);
+        frame(2000, 1);
+        frame(5000, 1);
+        assertEquals(Arrays.asList(1L), impressions);
+
+        // Scrolled away and back
+        frame(6000);
+        frame(7000, 1);
+        frame(8000, 1);
+        assertEquals(Arrays.asList(1L, 1L), impressions);
+    }
+
+    @Test
+    public void itemScrolledAwayTooSoonStartsAgain() {
+        frame(0, 1);
+        frame(500);
+        frame(1000, 1);
+        frame(1500, 1);
+        assertTrue(impressions.isEmpty());
+
+        frame(2000, 1);
+        assertEquals(Arrays.asList(1L), impressions);
+    }
+
+    @Test
+    public void mostlyHiddenItemIsNotVisible() {
+        tracker.beginFrame(0);
+        tracker.onItemVisible(1, 0.4f);
+        tracker.endFrame();
+        tracker.beginFrame(1000);
+        tracker.onItemVisible(1, 0.4f);
+        tracker.endFrame();
+
+        assertTrue(impressions.isEmpty());
+        assertEquals(Long.MAX_VALUE, tracker.getNextDeadlineMillis());
+    }
+
+    @Test
+    public void deadlineIsWhenTheFirstWaitingItemCounts() {
+        frame(100, 1);
+        frame(400, 1, 2);
+
+        assertEquals(1100, tracker.getNextDeadlineMillis());
+    }
+
+    @Test
+    public void manyImpressionsInOneFrame() {
+        long[] ids = new long[100];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        frame(0, ids);
+        frame(1000, ids);
+
+        assertEquals(100, impressions.size());
+        assertEquals(99L, (long) impressions.get(99));
+    }
+}
@@ -0,0 +1,64 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ItemRingBufferTest {
+
+    @Test
+    public void positionsFollowItemsAcrossTheWrap() {
+        ItemRingBuffer buffer = new ItemRingBuffer(4);
+        Item a = new DummyItem();
+        Item b = new DummyItem();
+        Item c = new DummyItem();
+        Item d = new DummyItem();
+        buffer.add(a);
+        buffer.add(b);
+        buffer.add(c);
+        buffer.removeFirst(2);
+        buffer.add(d);
+        buffer.addAll(0, Arrays.asList(a, b));
+
+        assertEquals(Arrays.asList(a, b, c, d), buffer.toList());
+        assertEquals(4, buffer.capacity());
+        assertEquals(0, buffer.indexOf(a));
+        assertEquals(3, buffer.indexOf(d));
+    }
+
+    @Test
+    public void removedItemsAreForgotten() {
+        ItemRingBuffer buffer = new ItemRingBuffer(2);
+        Item a = new DummyItem();
+        Item b = new DummyItem();
+        Item c = new DummyItem();
+        buffer.addAll(0, Arrays.asList(a, b, c));
+
+        assertSame(b, buffer.remove(1));
+        buffer.removeFirst(1);
+
+        assertEquals(-1, buffer.indexOf(a));
+        assertEquals(-1, buffer.indexOf(b));
+        assertEquals(0, buffer.indexOf(c));
+    }
+
+    @Test
+    public void resizingKeepsPositions() {
+        ItemRingBuffer buffer = new ItemRingBuffer(3);
+        Item a = new DummyItem();
+        Item b = new DummyItem();
+        buffer.add(new DummyItem());
+        buffer.add(a);
+        buffer.removeFirst(1);
+        buffer.addAll(1, Collections.singletonList(b));
+
+        buffer.setCapacity(2);
+
+        assertEquals(Arrays.asList(a, b), buffer.toList());
+        assertEquals(1, buffer.indexOf(b));
+    }
+}
@@ -0,0 +1,176 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KeyedGroupingSectionTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private static class WordItem extends DummyItem {
+        String word;
+
+        WordItem(String word) {
+            this.word = word;
+        }
+    }
+
+    private static class HeaderItem extends DummyItem {
+        final Character letter;
+
+        HeaderItem(Character letter) {
+            this.letter = letter;
+        }
+    }
+
+    private final KeyedGroupingSection.KeyFunction<Character> firstLetter = new KeyedGroupingSection.KeyFunction<Character>() {
+        @Override
+        public Character getKey(Item item) {
+            return ((WordItem) item).word.charAt(0);
+        }
+    };
+
+    private final KeyedGroupingSection.HeaderFactory<Character> headers = new KeyedGroupingSection.HeaderFactory<Character>() {
+        @Override
+        public Group createHeader(Character key) {
+            return new HeaderItem(key);
+        }
+    };
+
+    private final Comparator<Character> alphabetical = new Comparator<Character>() {
+        @Override
+        public int compare(Character first, Character second) {
+            return first.compareTo(second);
+        }
+    };
+
+    private KeyedGroupingSection<Character> section() {
+        return new KeyedGroupingSection<>(firstLetter, alphabetical, headers);
+    }
+
+    @Test
+    public void itemsAreGroupedUnderSortedHeaders() {
+        KeyedGroupingSection<Character> section = section();
+        WordItem banana = new WordItem("banana");
+        WordItem apple = new WordItem("apple");
+        WordItem blueberry = new WordItem("blueberry");
+        section.addAll(Arrays.asList(banana, apple, blueberry));
+
+        assertEquals(5, section.getItemCount());
+        assertEquals('a', (char) ((HeaderItem) section.getItem(0)).letter);
+        assertSame(apple, section.getItem(1));
+        assertEquals('b', (char) ((HeaderItem) section.getItem(2)).letter);
+        assertSame(banana, section.getItem(3));
+        assertSame(blueberry, section.getItem(4));
+        assertEquals(4, section.getPosition(blueberry));
+    }
+
+    @Test
+    public void newBucketIsNotifiedWithItsHeader() {
+        KeyedGroupingSection<Character> section = section();
+        section.addAll(Arrays.asList(new WordItem("apple"), new WordItem("cherry")));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.add(new WordItem("banana"));
+
+        verify(groupAdapter).onItemRangeInserted(section, 2, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void addingToExistingBucketNotifiesItsPosition() {
+        KeyedGroupingSection<Character> section = section();
+        section.addAll(Arrays.asList(new WordItem("apple"), new WordItem("banana")));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.add(new WordItem("avocado"));
+
+        assertEquals(5, section.getItemCount());
+        verify(groupAdapter).onItemRangeInserted(section, 2, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void removingLastItemDropsBucket() {
+        KeyedGroupingSection<Character> section = section();
+        WordItem banana = new WordItem("banana");
+        section.addAll(Arrays.asList(new WordItem("apple"), banana, new WordItem("cherry")));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.remove(banana);
+
+        assertTrue(section.getItems('b').isEmpty());
+        assertEquals(4, section.getItemCount());
+        verify(groupAdapter).onItemRangeRemoved(section, 2, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void updateWithNewKeyMovesItemToOtherBucket() {
+        KeyedGroupingSection<Character> section = section();
+        WordItem word = new WordItem("apple");
+        section.addAll(Arrays.asList(word, new WordItem("avocado"), new WordItem("cherry")));
+
+        word.word = "cranberry";
+        section.update(word);
+
+        assertEquals(5, section.getItemCount());
+        assertSame(word, section.getItem(4));
+        assertEquals(Arrays.<Item>asList(section.getItem(3), word), section.getItems('c'));
+    }
+
+    @Test
+    public void childChangesAreNotifiedAtTheirPosition() {
+        KeyedGroupingSection<Character> section = section();
+        WordItem cherry = new WordItem("cherry");
+        section.addAll(Arrays.asList(new WordItem("apple"), new WordItem("banana"), cherry));
+        section.registerGroupDataObserver(groupAdapter);
+
+        cherry.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(section, 5);
+    }
+
+    @Test
+    public void removingWhatIsNotThereChangesNothing() {
+        KeyedGroupingSection<Character> section = section();
+        WordItem apple = new WordItem("apple");
+        WordItem avocado = new WordItem("avocado");
+        section.addAll(Arrays.asList(apple, avocado));
+        Group header = section.getItem(0);
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.remove(header);
+        section.remove(new WordItem("apricot"));
+        section.remove(apple);
+        section.remove(apple);
+
+        assertEquals(Arrays.<Item>asList(avocado), section.getItems('a'));
+        assertEquals(2, section.getItemCount());
+        verify(groupAdapter).onItemRangeRemoved(section, 1, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void itemsAreACopy() {
+        KeyedGroupingSection<Character> section = section();
+        section.add(new WordItem("apple"));
+
+        section.getItems('a').clear();
+
+        assertEquals(1, section.getItems('a').size());
+    }
+}
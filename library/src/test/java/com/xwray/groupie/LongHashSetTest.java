@@ -0,0 +1,44 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void addReportsDuplicates() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(5));
+        assertTrue(set.add(-5));
+        assertFalse(set.add(5));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        LongHashSet set = new LongHashSet(4);
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(set.add(i * 31));
+        }
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i * 31));
+        }
+        assertFalse(set.contains(1));
+        assertEquals(1000, set.size());
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        LongHashSet set = new LongHashSet();
+        set.add(Long.MIN_VALUE);
+        set.add(0);
+        set.clear(100);
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertTrue(set.add(Long.MIN_VALUE));
+    }
+}
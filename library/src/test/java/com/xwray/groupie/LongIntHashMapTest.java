@@ -0,0 +1,56 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void putReplacesExistingValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(5, 1);
+        map.put(-5, 2);
+        map.put(5, 3);
+
+        assertEquals(3, map.get(5, -1));
+        assertEquals(2, map.get(-5, -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void missingKeyReturnsMissingValue() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(1, 0);
+
+        assertEquals(-1, map.get(2, -1));
+        assertFalse(map.containsKey(2));
+        assertTrue(map.containsKey(1));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31L, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get(i * 31L, -1));
+        }
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(Long.MIN_VALUE, 1);
+        map.put(0, 2);
+        map.clear(100);
+
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.get(Long.MIN_VALUE, -1));
+    }
+}
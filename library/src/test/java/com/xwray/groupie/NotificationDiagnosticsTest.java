@@ -0,0 +1,148 @@
+package com.xwray.groupie;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationDiagnosticsTest {
+
+    @Mock
+    OnNotificationStatsListener listener;
+
+    private GroupAdapter<GroupieViewHolder> groupAdapter;
+    private Section outer;
+    private Section inner;
+
+    @Before
+    public void setUp() {
+        groupAdapter = new GroupAdapter<>();
+        outer = new Section();
+        inner = new Section();
+        outer.add(new DummyItem());
+        outer.add(inner);
+        groupAdapter.add(new DummyItem());
+        groupAdapter.add(outer);
+    }
+
+    @After
+    public void tearDown() {
+        groupAdapter.setNotificationStatsListener(null);
+    }
+
+    private NotificationStats report() {
+        groupAdapter.notificationDiagnostics.report();
+        ArgumentCaptor<NotificationStats> stats = ArgumentCaptor.forClass(NotificationStats.class);
+        verify(listener).onFrameNotificationStats(stats.capture());
+        return stats.getValue();
+    }
+
+    @Test
+    public void countsEachHopAndAdapterNotification() {
+        groupAdapter.setNotificationStatsListener(listener);
+
+        inner.add(new DummyItem());
+
+        NotificationStats stats = report();
+        assertEquals(1, stats.getAdapterNotificationCount(NotificationStats.TYPE_ITEM_RANGE_INSERTED));
+        assertEquals(1, stats.getAdapterNotificationCount());
+        // Inner to outer, then outer to the adapter
+        assertEquals(2, stats.getGroupNotificationCount(NotificationStats.TYPE_ITEM_RANGE_INSERTED));
+        assertEquals(Integer.valueOf(1), stats.getNotificationsByOrigin().get(inner));
+    }
+
+    @Test
+    public void countsPositionWalksWhilePropagating() {
+        groupAdapter.setNotificationStatsListener(listener);
+
+        inner.add(new DummyItem());
+
+        NotificationStats stats = report();
+        // Outer finds inner after its first item, then the adapter finds outer after its first group
+        assertEquals(2, stats.getPositionWalkCount());
+        assertEquals(2, stats.getPositionWalkSteps());
+        assertTrue(stats.getItemCountCallCount() > 0);
+    }
+
+    @Test
+    public void countsStartFromWhenListenerIsSet() {
+        inner.add(new DummyItem());
+        groupAdapter.setNotificationStatsListener(listener);
+
+        inner.add(new DummyItem());
+
+        NotificationStats stats = report();
+        assertEquals(1, stats.getAdapterNotificationCount());
+        assertEquals(2, stats.getGroupNotificationCount());
+    }
+
+    @Test
+    public void notificationsToOtherAdaptersAreNotCounted() {
+        groupAdapter.setNotificationStatsListener(listener);
+        GroupAdapter<GroupieViewHolder> otherAdapter = new GroupAdapter<>();
+        Section otherInner = new Section();
+        Section otherOuter = new Section(Collections.singletonList(otherInner));
+        otherAdapter.add(otherOuter);
+        Section detached = new Section(Collections.singletonList(new Section()));
+
+        otherInner.add(new DummyItem());
+        ((Section) detached.getGroup(0)).add(new DummyItem());
+        inner.add(new DummyItem());
+
+        NotificationStats stats = report();
+        assertEquals(1, stats.getAdapterNotificationCount());
+        assertEquals(2, stats.getGroupNotificationCount());
+        assertEquals(2, stats.getPositionWalkCount());
+    }
+
+    @Test
+    public void countingIsOnlyEnabledWhileAnAdapterHasAListener() {
+        assertFalse(NotificationCounters.enabled);
+        GroupAdapter<GroupieViewHolder> otherAdapter = new GroupAdapter<>();
+
+        groupAdapter.setNotificationStatsListener(listener);
+        groupAdapter.setNotificationStatsListener(listener, true);
+        otherAdapter.setNotificationStatsListener(listener);
+        assertTrue(NotificationCounters.enabled);
+
+        otherAdapter.setNotificationStatsListener(null);
+        assertTrue(NotificationCounters.enabled);
+
+        groupAdapter.setNotificationStatsListener(null);
+        assertFalse(NotificationCounters.enabled);
+    }
+
+    @Test
+    public void reportsNothingWithoutNotifications() {
+        groupAdapter.setNotificationStatsListener(listener);
+
+        groupAdapter.notificationDiagnostics.report();
+
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    public void capturesCallSitesOutsideGroupie() {
+        groupAdapter.setNotificationStatsListener(listener, true);
+
+        inner.add(new DummyItem());
+
+        NotificationStats stats = report();
+        // This test is in the library's package, so the first frame outside it is the test runner
+        assertEquals(1, stats.getNotificationsByCallSite().size());
+        String callSite = stats.getNotificationsByCallSite().keySet().iterator().next();
+        assertFalse(callSite, callSite.startsWith("com.xwray.groupie."));
+    }
+}
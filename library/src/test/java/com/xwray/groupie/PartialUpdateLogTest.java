@@ -0,0 +1,108 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartialUpdateLogTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private final PartialUpdateLog log = new PartialUpdateLog();
+
+    @Test
+    public void changesToNewGroupsAreReplayedAfterStopping() {
+        Item item = new DummyItem();
+        Section section = new Section(Arrays.asList(new DummyItem(), item));
+        log.start(Collections.<Group>emptyList(), Collections.singletonList(section));
+
+        item.notifyChanged("payload");
+        log.stop();
+        section.registerGroupDataObserver(groupAdapter);
+        log.replayTo(groupAdapter);
+
+        verify(groupAdapter).onItemRangeChanged(section, 1, 1, "payload");
+        assertFalse(log.isStale());
+    }
+
+    @Test
+    public void groupsAlreadyDisplayedAreNotObserved() {
+        Section section = new Section(Collections.singletonList(new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+        List<Group> groups = Collections.<Group>singletonList(section);
+        log.start(groups, groups);
+
+        section.add(new DummyItem());
+
+        verify(groupAdapter).onItemRangeInserted(section, 1, 1);
+        assertFalse(log.isStale());
+    }
+
+    @Test
+    public void structuralChangeToNewGroupMakesLogStale() {
+        Section section = new Section();
+        log.start(Collections.<Group>emptyList(), Collections.singletonList(section));
+
+        section.add(new DummyItem());
+
+        assertTrue(log.isStale());
+    }
+
+    @Test
+    public void staleLogReplaysNothing() {
+        Item item = new DummyItem();
+        Section section = new Section(Collections.singletonList(item));
+        log.start(Collections.<Group>emptyList(), Collections.singletonList(section));
+
+        item.notifyChanged();
+        log.markStale();
+        item.notifyChanged();
+        log.stop();
+        log.replayTo(groupAdapter);
+
+        verifyNoInteractions(groupAdapter);
+    }
+
+    @Test
+    public void markingStaleWhenNotRecordingDoesNothing() {
+        log.markStale();
+
+        assertFalse(log.isStale());
+    }
+
+    @Test
+    public void stopUnregistersFromNewItems() {
+        Item item = new DummyItem();
+        log.start(Collections.<Group>emptyList(), Collections.singletonList(item));
+        assertSame(log, item.parentDataObserver);
+
+        log.stop();
+
+        assertNull(item.parentDataObserver);
+    }
+
+    @Test
+    public void itemsObservedElsewhereAreLeftAlone() {
+        Item item = new DummyItem();
+        item.registerGroupDataObserver(groupAdapter);
+        log.start(Collections.<Group>emptyList(), Collections.singletonList(item));
+
+        log.stop();
+
+        assertSame(groupAdapter, item.parentDataObserver);
+    }
+}
@@ -0,0 +1,124 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RingSectionTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    @Test
+    public void addingToFullSectionEvictsOldest() {
+        DummyItem first = new DummyItem();
+        DummyItem second = new DummyItem();
+        RingSection section = new RingSection(2, Arrays.asList(first, second));
+        section.registerGroupDataObserver(groupAdapter);
+
+        DummyItem third = new DummyItem();
+        section.add(third);
+
+        assertEquals(2, section.getItemCount());
+        assertSame(second, section.getItem(0));
+        assertSame(third, section.getItem(1));
+        InOrder inOrder = inOrder(groupAdapter);
+        inOrder.verify(groupAdapter).onItemRemoved(section, 0);
+        inOrder.verify(groupAdapter).onItemInserted(section, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void bulkAppendNotifiesAtMostTwice() {
+        RingSection section = new RingSection(4, Arrays.asList(new DummyItem(), new DummyItem(), new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.addAll(Arrays.asList(new DummyItem(), new DummyItem(), new DummyItem()));
+
+        assertEquals(4, section.getItemCount());
+        InOrder inOrder = inOrder(groupAdapter);
+        inOrder.verify(groupAdapter).onItemRangeRemoved(section, 0, 2);
+        inOrder.verify(groupAdapter).onItemRangeInserted(section, 1, 3);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void bulkAppendLargerThanCapacityKeepsNewestItems() {
+        RingSection section = new RingSection(2, Arrays.asList(new DummyItem(), new DummyItem()));
+        section.registerGroupDataObserver(groupAdapter);
+
+        DummyItem second = new DummyItem();
+        DummyItem third = new DummyItem();
+        section.addAll(Arrays.asList(new DummyItem(), second, third));
+
+        assertSame(second, section.getItem(0));
+        assertSame(third, section.getItem(1));
+        verify(groupAdapter).onItemRangeRemoved(section, 0, 2);
+        verify(groupAdapter).onItemRangeInserted(section, 0, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void evictedItemsNoLongerNotify() {
+        DummyItem first = new DummyItem();
+        RingSection section = new RingSection(1, Arrays.asList(first));
+        section.add(new DummyItem());
+        section.registerGroupDataObserver(groupAdapter);
+
+        first.notifyChanged();
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void childChangesAreNotifiedAtTheirPositionAfterWrapping() {
+        RingSection section = new RingSection(3, Arrays.asList(new DummyItem(), new DummyItem(), new DummyItem()));
+        DummyItem item = new DummyItem();
+        section.addAll(Arrays.asList(new DummyItem(), item));
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(section, 2);
+    }
+
+    @Test
+    public void removeFromMiddleKeepsOrder() {
+        DummyItem first = new DummyItem();
+        DummyItem second = new DummyItem();
+        DummyItem third = new DummyItem();
+        DummyItem fourth = new DummyItem();
+        RingSection section = new RingSection(4, Arrays.asList(first, second, third, fourth));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.remove(second);
+        section.remove(third);
+
+        assertEquals(Arrays.asList(first, fourth), section.getItems());
+        verify(groupAdapter, times(2)).onItemRemoved(section, 1);
+    }
+
+    @Test
+    public void shrinkingCapacityEvictsOldest() {
+        DummyItem last = new DummyItem();
+        RingSection section = new RingSection(3, Arrays.asList(new DummyItem(), new DummyItem(), last));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.setCapacity(1);
+
+        assertEquals(Arrays.asList(last), section.getItems());
+        verify(groupAdapter).onItemRangeRemoved(section, 0, 2);
+    }
+}
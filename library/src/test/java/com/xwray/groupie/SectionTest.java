@@ -846,4 +846,109 @@ public class SectionTest {
         verify(groupAdapter).onItemRangeInserted(group, 1, 1);
         verifyNoMoreInteractions(groupAdapter);
     }
+
+    private static class PricedItem extends DummyItem {
+        final int price;
+
+        PricedItem(long id, int price) {
+            super(id);
+            this.price = price;
+        }
+
+        @Override
+        public boolean hasSameContentAs(Item other) {
+            return other instanceof PricedItem && ((PricedItem) other).price == price;
+        }
+
+        @Override
+        public Object getChangePayload(Item newItem) {
+            return "price";
+        }
+    }
+
+    @Test
+    public void updateItemsReplacesByIdAndNotifiesChangeWithPayload() {
+        Section section = new Section(header);
+        section.addAll(Arrays.asList(new PricedItem(1, 10), new PricedItem(2, 20), new PricedItem(3, 30)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        PricedItem replacement = new PricedItem(2, 25);
+        int replaced = section.updateItems(Collections.singletonList(replacement));
+
+        assertEquals(1, replaced);
+        assertEquals(replacement, section.getItem(headerSize + 1));
+        verify(groupAdapter).onItemChanged(section, headerSize + 1, "price");
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void updateItemsWithSameContentOnlyReportsTheSwap() {
+        Section section = new Section(Arrays.asList(new PricedItem(1, 10), new PricedItem(2, 20)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.updateItems(Collections.singletonList(new PricedItem(1, 10)));
+
+        verify(groupAdapter).onItemInstancesReplaced();
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void updateItemsWithSameContentInNestedSectionReportsTheSwapToTheAdapter() {
+        Section inner = new Section(Arrays.asList(new PricedItem(1, 10), new PricedItem(2, 20)));
+        Section section = new Section(Collections.singletonList(inner));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.updateItems(Collections.singletonList(new PricedItem(2, 20)));
+
+        verify(groupAdapter).onItemInstancesReplaced();
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void updateItemsWithItemAlreadyInPlaceNotifiesNothing() {
+        PricedItem item = new PricedItem(1, 10);
+        Section section = new Section(Arrays.asList(item, new PricedItem(2, 20)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.updateItems(Collections.singletonList(item));
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateItemsRejectsReplacementsWhichAreNotTheSame() {
+        Section section = new Section(Collections.singletonList(new PricedItem(1, 10)));
+
+        section.updateItems(Collections.singletonList(new DummyItem(1) {
+            @Override
+            public int getLayout() {
+                return 7;
+            }
+        }));
+    }
+
+    @Test
+    public void updateItemsFindsItemsInNestedSections() {
+        Section nested = new Section(Arrays.asList(new PricedItem(2, 20), new PricedItem(3, 30)));
+        Section section = new Section(Arrays.asList(new PricedItem(1, 10), nested));
+        section.registerGroupDataObserver(groupAdapter);
+
+        int replaced = section.updateItems(Arrays.asList(new PricedItem(3, 35), new PricedItem(4, 40)));
+
+        assertEquals(1, replaced);
+        verify(groupAdapter).onItemChanged(section, 2, "price");
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void replacedItemsStopNotifying() {
+        PricedItem original = new PricedItem(1, 10);
+        Section section = new Section(Collections.singletonList(original));
+        section.updateItems(Collections.singletonList(new PricedItem(1, 15)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        original.notifyChanged();
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
 }
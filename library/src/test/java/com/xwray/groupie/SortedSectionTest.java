@@ -0,0 +1,140 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SortedSectionTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private final Comparator<Item> byKey = new Comparator<Item>() {
+        @Override
+        public int compare(Item first, Item second) {
+            return Integer.compare(((KeyedItem) first).key, ((KeyedItem) second).key);
+        }
+    };
+
+    private static class KeyedItem extends DummyItem {
+        int key;
+
+        KeyedItem(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void addInsertsAtSortedPosition() {
+        SortedSection section = new SortedSection(byKey, Arrays.asList(new KeyedItem(1), new KeyedItem(5)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        KeyedItem item = new KeyedItem(3);
+        section.add(item);
+
+        assertSame(item, section.getItem(1));
+        verify(groupAdapter).onItemInserted(section, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void equalItemsKeepInsertionOrder() {
+        SortedSection section = new SortedSection(byKey);
+        KeyedItem first = new KeyedItem(2);
+        KeyedItem second = new KeyedItem(2);
+        section.add(first);
+        section.add(second);
+
+        assertSame(first, section.getItem(0));
+        assertSame(second, section.getItem(1));
+    }
+
+    @Test
+    public void addAllMergesAndNotifiesEachRunOnce() {
+        SortedSection section = new SortedSection(byKey, Arrays.asList(new KeyedItem(10), new KeyedItem(20)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.addAll(Arrays.asList(new KeyedItem(25), new KeyedItem(5), new KeyedItem(15), new KeyedItem(1), new KeyedItem(30)));
+
+        List<Item> items = section.getItems();
+        int[] expected = {1, 5, 10, 15, 20, 25, 30};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], ((KeyedItem) items.get(i)).key);
+        }
+        InOrder inOrder = inOrder(groupAdapter);
+        inOrder.verify(groupAdapter).onItemRangeInserted(section, 0, 2);
+        inOrder.verify(groupAdapter).onItemRangeInserted(section, 3, 1);
+        inOrder.verify(groupAdapter).onItemRangeInserted(section, 5, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void relocateNotifiesSingleMove() {
+        KeyedItem item = new KeyedItem(1);
+        SortedSection section = new SortedSection(byKey, Arrays.asList(item, new KeyedItem(2), new KeyedItem(3)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.key = 4;
+        assertTrue(section.relocate(item));
+
+        assertSame(item, section.getItem(2));
+        verify(groupAdapter).onItemMoved(section, 0, 2);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void relocateInPlaceDoesNotNotify() {
+        KeyedItem item = new KeyedItem(2);
+        SortedSection section = new SortedSection(byKey, Arrays.asList(new KeyedItem(1), item, new KeyedItem(3)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.key = 2;
+        assertFalse(section.relocate(item));
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void removeNotifiesRemovedPosition() {
+        KeyedItem item = new KeyedItem(2);
+        SortedSection section = new SortedSection(byKey, Arrays.asList(new KeyedItem(1), item, new KeyedItem(3)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.remove(item);
+
+        assertEquals(2, section.getItemCount());
+        verify(groupAdapter).onItemRemoved(section, 1);
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void childChangesArePassedOnAtTheirPosition() {
+        KeyedItem item = new KeyedItem(2);
+        SortedSection section = new SortedSection(byKey, Arrays.asList(new KeyedItem(1), item, new KeyedItem(3)));
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(section, 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void positionalAddIsNotSupported() {
+        new SortedSection(byKey).add(0, new KeyedItem(1));
+    }
+}
@@ -0,0 +1,69 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimingHistogramTest {
+
+    @Test
+    public void recordsCountTotalAndMax() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(200);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(600, histogram.getTotalNanos());
+        assertEquals(300, histogram.getMaxNanos());
+        assertEquals(200, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void durationsFallInPowerOfTwoBuckets() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(1023);
+        histogram.record(1024);
+
+        assertEquals(1, histogram.getBucket(0));
+        assertEquals(1, histogram.getBucket(1));
+        assertEquals(1, histogram.getBucket(10));
+        assertEquals(1, histogram.getBucket(11));
+        assertEquals(1024, TimingHistogram.getBucketUpperBoundNanos(10));
+    }
+
+    @Test
+    public void longDurationsGoInLastBucket() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(1, histogram.getBucket(TimingHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void percentileRoundsUpToBucketBound() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertEquals(128, histogram.getPercentileNanos(0.5));
+        assertEquals(128, histogram.getPercentileNanos(0.9));
+        assertEquals(5000, histogram.getPercentileNanos(0.99));
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        TimingHistogram histogram = new TimingHistogram();
+        histogram.record(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getBucket(7));
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+    }
+}
@@ -0,0 +1,83 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TimingMetricsTest {
+
+    @Mock
+    GroupieViewHolder viewHolder;
+
+    static class OtherItem extends DummyItem {
+        @Override
+        public int getLayout() {
+            return 7;
+        }
+    }
+
+    @Test
+    public void timingsAreKeptPerViewType() {
+        TimingMetrics metrics = new TimingMetrics();
+        Item item = new DummyItem();
+        Item other = new OtherItem();
+
+        metrics.onViewHolderCreated(other, 7, 1000);
+        metrics.onViewHolderBound(viewHolder, item, false, 200);
+        metrics.onViewHolderBound(viewHolder, other, false, 300);
+        metrics.onViewHolderBound(viewHolder, other, true, 50);
+
+        TimingMetrics.ViewTypeTimings timings = metrics.getViewTypeTimings(7, OtherItem.class);
+        assertSame(OtherItem.class, timings.getItemClass());
+        assertEquals(1, timings.getCreateTimes().getCount());
+        assertEquals(300, timings.getBindTimes().getTotalNanos());
+        assertEquals(50, timings.getPayloadBindTimes().getTotalNanos());
+        assertEquals(200, metrics.getViewTypeTimings(0, DummyItem.class).getBindTimes().getTotalNanos());
+        assertNull(metrics.getViewTypeTimings(3, DummyItem.class));
+    }
+
+    @Test
+    public void itemClassesSharingAViewTypeAreTimedSeparately() {
+        TimingMetrics metrics = new TimingMetrics();
+        Item other = new OtherItem();
+        Item sameLayout = new OtherItem() {
+        };
+
+        metrics.onViewHolderBound(viewHolder, other, false, 300);
+        metrics.onViewHolderBound(viewHolder, sameLayout, false, 100);
+        metrics.onViewHolderBound(viewHolder, other, false, 300);
+
+        assertEquals(600, metrics.getViewTypeTimings(7, OtherItem.class).getBindTimes().getTotalNanos());
+        assertEquals(100, metrics.getViewTypeTimings(7, sameLayout.getClass()).getBindTimes().getTotalNanos());
+        assertEquals(2, metrics.getViewTypeTimings().size());
+    }
+
+    @Test
+    public void viewTypesAreListedInOrder() {
+        TimingMetrics metrics = new TimingMetrics();
+        metrics.onViewHolderRecycled(viewHolder, new OtherItem(), 10);
+        metrics.onViewHolderRecycled(viewHolder, new DummyItem(), 10);
+
+        assertEquals(2, metrics.getViewTypeTimings().size());
+        assertEquals(0, metrics.getViewTypeTimings().get(0).getViewType());
+        assertEquals(7, metrics.getViewTypeTimings().get(1).getViewType());
+    }
+
+    @Test
+    public void resetKeepsViewTypes() {
+        TimingMetrics metrics = new TimingMetrics();
+        metrics.onViewHolderBound(viewHolder, new DummyItem(), false, 200);
+        metrics.onAsyncDiffCalculated(10, 12, 5000);
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getViewTypeTimings(0, DummyItem.class).getBindTimes().getCount());
+        assertEquals(0, metrics.getAsyncDiffTimes().getCount());
+    }
+}
@@ -0,0 +1,304 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TreeGroupTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    @Test
+    public void topLevelNodesAreVisible() {
+        TreeGroup treeGroup = new TreeGroup();
+        DummyItem first = new DummyItem();
+        DummyItem second = new DummyItem();
+        treeGroup.addNode(first);
+        treeGroup.addNode(second);
+
+        assertEquals(2, treeGroup.getItemCount());
+        assertSame(first, treeGroup.getItem(0));
+        assertSame(second, treeGroup.getItem(1));
+    }
+
+    @Test
+    public void childrenAreHiddenWhenCollapsed() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        DummyItem child = new DummyItem();
+        node.addChild(child);
+
+        assertFalse(node.isExpanded());
+        assertEquals(1, treeGroup.getItemCount());
+        assertEquals(-1, treeGroup.getPosition(child));
+    }
+
+    @Test
+    public void addChildToCollapsedNodeDoesNotNotify() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.addChild(new DummyItem());
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void addChildToExpandedNodeNotifies() {
+        TreeGroup treeGroup = new TreeGroup();
+        treeGroup.addNode(new DummyItem());
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        node.setExpanded(true);
+        node.addChild(new DummyItem());
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.addChild(new DummyItem());
+
+        verify(groupAdapter).onItemInserted(treeGroup, 3);
+    }
+
+    @Test
+    public void expandNotifiesChildRows() {
+        TreeGroup treeGroup = new TreeGroup();
+        treeGroup.addNode(new DummyItem());
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        TreeGroup.Node child = node.addChild(new DummyItem());
+        child.addChild(new DummyItem());
+        child.setExpanded(true);
+        node.addChild(new DummyItem());
+        treeGroup.addNode(new DummyItem());
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.setExpanded(true);
+
+        verify(groupAdapter).onItemRangeInserted(treeGroup, 2, 3);
+        assertEquals(6, treeGroup.getItemCount());
+    }
+
+    @Test
+    public void collapseNotifiesChildRows() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        node.addChild(new DummyItem());
+        node.addChild(new DummyItem());
+        node.setExpanded(true);
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.toggleExpanded();
+
+        verify(groupAdapter).onItemRangeRemoved(treeGroup, 1, 2);
+        assertEquals(1, treeGroup.getItemCount());
+    }
+
+    @Test
+    public void expandInsideCollapsedAncestorDoesNotNotify() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        TreeGroup.Node child = node.addChild(new DummyItem());
+        child.addChild(new DummyItem());
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        child.setExpanded(true);
+        verifyNoMoreInteractions(groupAdapter);
+
+        node.setExpanded(true);
+        verify(groupAdapter).onItemRangeInserted(treeGroup, 1, 2);
+        assertEquals(3, treeGroup.getItemCount());
+    }
+
+    @Test
+    public void getItemAndPositionMatchDepthFirstOrder() {
+        TreeGroup treeGroup = new TreeGroup();
+        DummyItem a = new DummyItem();
+        DummyItem a1 = new DummyItem();
+        DummyItem a1x = new DummyItem();
+        DummyItem a2 = new DummyItem();
+        DummyItem b = new DummyItem();
+        TreeGroup.Node nodeA = treeGroup.addNode(a);
+        treeGroup.addNode(b);
+        TreeGroup.Node nodeA1 = nodeA.addChild(a1);
+        nodeA1.addChild(a1x);
+        nodeA.addChild(a2);
+        treeGroup.expandAll();
+
+        Item[] expected = {a, a1, a1x, a2, b};
+        assertEquals(expected.length, treeGroup.getItemCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], treeGroup.getItem(i));
+            assertEquals(i, treeGroup.getPosition(expected[i]));
+        }
+        assertEquals(2, treeGroup.getNode(a1x).getDepth());
+    }
+
+    @Test
+    public void expandAllSendsOneInsertForCollapsedSubtree() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        TreeGroup.Node child = node.addChild(new DummyItem());
+        child.addChild(new DummyItem());
+        child.addChild(new DummyItem());
+        node.addChild(new DummyItem());
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.expandAll();
+
+        verify(groupAdapter).onItemRangeInserted(treeGroup, 1, 4);
+        verifyNoMoreInteractions(groupAdapter);
+        assertTrue(child.isExpanded());
+    }
+
+    @Test
+    public void collapseAllSendsOneRemoveForExpandedSubtree() {
+        TreeGroup treeGroup = new TreeGroup();
+        treeGroup.addNode(new DummyItem());
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        TreeGroup.Node child = node.addChild(new DummyItem());
+        child.addChild(new DummyItem());
+        node.expandAll();
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.collapseAll();
+
+        verify(groupAdapter).onItemRangeRemoved(treeGroup, 2, 2);
+        verifyNoMoreInteractions(groupAdapter);
+        assertFalse(child.isExpanded());
+    }
+
+    @Test
+    public void collapseAllOnTreeKeepsTopLevelRows() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node first = treeGroup.addNode(new DummyItem());
+        first.addChild(new DummyItem());
+        TreeGroup.Node second = treeGroup.addNode(new DummyItem());
+        second.addChild(new DummyItem());
+        treeGroup.expandAll();
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        treeGroup.collapseAll();
+
+        verify(groupAdapter).onItemRangeChanged(treeGroup, 0, 2);
+        verify(groupAdapter).onItemRangeRemoved(treeGroup, 2, 2);
+        assertEquals(2, treeGroup.getItemCount());
+    }
+
+    @Test
+    public void expandAllWhenAlreadyExpandedDoesNotNotify() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        node.addChild(new DummyItem());
+        treeGroup.expandAll();
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        treeGroup.expandAll();
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void removeNodeRemovesVisibleSubtree() {
+        TreeGroup treeGroup = new TreeGroup();
+        treeGroup.addNode(new DummyItem());
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        DummyItem child = new DummyItem();
+        node.addChild(child);
+        node.setExpanded(true);
+        DummyItem last = new DummyItem();
+        treeGroup.addNode(last);
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        node.remove();
+
+        verify(groupAdapter).onItemRangeRemoved(treeGroup, 1, 2);
+        assertEquals(2, treeGroup.getItemCount());
+        assertEquals(1, treeGroup.getPosition(last));
+        assertNull(treeGroup.getNode(child));
+    }
+
+    @Test
+    public void childItemChangeNotifiesAtTreePosition() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        DummyItem child = new DummyItem();
+        node.addChild(new DummyItem());
+        node.addChild(child);
+        node.setExpanded(true);
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        child.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(treeGroup, 2);
+    }
+
+    @Test
+    public void hiddenItemChangeDoesNotNotify() {
+        TreeGroup treeGroup = new TreeGroup();
+        TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+        DummyItem child = new DummyItem();
+        node.addChild(child);
+        treeGroup.registerGroupDataObserver(groupAdapter);
+
+        child.notifyChanged();
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void addGroupAddsTopLevelNodes() {
+        TreeGroup treeGroup = new TreeGroup();
+        treeGroup.registerGroupDataObserver(groupAdapter);
+        DummyItem first = new DummyItem();
+        DummyItem second = new DummyItem();
+
+        treeGroup.addAll(Arrays.asList(first, second));
+
+        verify(groupAdapter).onItemInserted(treeGroup, 0);
+        verify(groupAdapter).onItemInserted(treeGroup, 1);
+        assertEquals(2, treeGroup.getTopLevelNodeCount());
+        assertSame(second, treeGroup.getTopLevelNode(1).getItem());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyItemsCanBeAdded() {
+        new TreeGroup().add(new Section());
+    }
+
+    @Test
+    public void manyNodesKeepCountsConsistent() {
+        TreeGroup treeGroup = new TreeGroup();
+        int total = 0;
+        for (int i = 0; i < 50; i++) {
+            TreeGroup.Node node = treeGroup.addNode(new DummyItem());
+            total++;
+            for (int j = 0; j < i % 7; j++) {
+                TreeGroup.Node child = node.addChild(new DummyItem());
+                total++;
+                for (int k = 0; k < j; k++) {
+                    child.addChild(new DummyItem());
+                    total++;
+                }
+            }
+        }
+        treeGroup.expandAll();
+        assertEquals(total, treeGroup.getItemCount());
+        for (int i = 0; i < total; i++) {
+            assertEquals(i, treeGroup.getPosition(treeGroup.getItem(i)));
+        }
+
+        treeGroup.collapseAll();
+        assertEquals(50, treeGroup.getItemCount());
+    }
+}
@@ -0,0 +1,202 @@
+package com.xwray.groupie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WindowedSectionTest {
+
+    @Mock
+    GroupAdapter groupAdapter;
+
+    private int created = 0;
+
+    private final WindowedSection.ItemFactory factory = new WindowedSection.ItemFactory() {
+        @Override
+        public Item createItem(long id) {
+            created++;
+            return new DummyItem(id);
+        }
+    };
+
+    private WindowedSection section(int radius, int itemCount) {
+        WindowedSection section = new WindowedSection(radius, factory);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new DummyItem(i));
+        }
+        section.addAll(items);
+        return section;
+    }
+
+    @Test
+    public void itemsOutsideWindowAreReleasedWhenAdded() {
+        WindowedSection section = section(2, 10);
+
+        assertEquals(10, section.getItemCount());
+        assertTrue(section.isHeld(2));
+        assertFalse(section.isHeld(3));
+    }
+
+    @Test
+    public void bindingMovesWindowWithoutNotifying() {
+        WindowedSection section = section(2, 10);
+        Item first = section.getItem(0);
+        section.registerGroupDataObserver(groupAdapter);
+
+        section.onBind(7);
+        Item item = section.getItem(7);
+
+        assertEquals(7, item.getId());
+        assertFalse(section.isHeld(0));
+        assertTrue(section.isHeld(7));
+        assertEquals(10, section.getItemCount());
+        verifyNoMoreInteractions(groupAdapter);
+
+        Item recreated = section.getItem(0);
+        assertEquals(first.getId(), recreated.getId());
+        assertNotSame(first, recreated);
+    }
+
+    @Test
+    public void heldItemsAreNotRecreated() {
+        WindowedSection section = section(2, 10);
+        section.onBind(5);
+        Item item = section.getItem(5);
+        int createdBefore = created;
+
+        section.onBind(6);
+        section.getItem(6);
+        assertSame(item, section.getItem(5));
+        assertEquals(createdBefore + 1, created);
+    }
+
+    @Test
+    public void releasedItemsNoLongerNotify() {
+        WindowedSection section = section(1, 10);
+        Item first = section.getItem(0);
+        section.onBind(9);
+        section.registerGroupDataObserver(groupAdapter);
+
+        first.notifyChanged();
+
+        verifyNoMoreInteractions(groupAdapter);
+    }
+
+    @Test
+    public void heldItemChangesAreNotifiedAtTheirPosition() {
+        WindowedSection section = section(2, 10);
+        section.onBind(6);
+        Item item = section.getItem(6);
+        section.registerGroupDataObserver(groupAdapter);
+
+        item.notifyChanged();
+
+        verify(groupAdapter).onItemChanged(section, 6);
+    }
+
+    @Test
+    public void removingBeforeWindowKeepsHeldItemsInsideIt() {
+        WindowedSection section = section(1, 10);
+        section.onBind(5);
+
+        section.removeAt(0);
+
+        assertFalse(section.isHeld(3));
+        assertEquals(6, section.getItem(5).getId());
+    }
+
+    @Test
+    public void fullReadKeepsBoundItemsHeld() {
+        WindowedSection section = section(2, 10);
+        section.onBind(5);
+        Item bound = section.getItem(5);
+        section.registerGroupDataObserver(groupAdapter);
+
+        for (int i = 0; i < section.getItemCount(); i++) {
+            assertEquals(i, section.getItem(i).getId());
+        }
+        bound.notifyChanged();
+
+        assertSame(bound, section.getItem(5));
+        assertFalse(section.isHeld(0));
+        assertFalse(section.isHeld(9));
+        verify(groupAdapter).onItemChanged(section, 5);
+    }
+
+    @Test
+    public void itemsOutsideWindowAreNotHeldWhenRead() {
+        WindowedSection section = section(2, 10);
+
+        Item item = section.getItem(8);
+
+        assertFalse(section.isHeld(8));
+        assertEquals(-1, section.getPosition(item));
+    }
+
+    @Test
+    public void itemsRecreatedOutsideWindowAreReusedForRepeatedReads() {
+        WindowedSection section = section(2, 10);
+
+        Item item = section.getItem(8);
+        section.getItem(9);
+
+        assertSame(item, section.getItem(8));
+        assertEquals(2, created);
+    }
+
+    @Test
+    public void itemsRecreatedOutsideWindowAreDroppedWhenPositionsShift() {
+        WindowedSection section = section(2, 10);
+        Item item = section.getItem(8);
+
+        section.removeAt(0);
+
+        Item shifted = section.getItem(8);
+        assertNotSame(item, shifted);
+        assertEquals(9, shifted.getId());
+    }
+
+    @Test
+    public void adapterBindsMoveWindow() {
+        WindowedSection section = section(2, 10);
+        GroupAdapter<GroupieViewHolder> adapter = new GroupAdapter<>();
+        adapter.add(new DummyItem());
+        adapter.add(section);
+
+        adapter.onBindViewHolder(mock(GroupieViewHolder.class), 8, Collections.emptyList());
+
+        assertTrue(section.isHeld(7));
+        assertFalse(section.isHeld(0));
+    }
+
+    @Test
+    public void adapterBindsMoveWindowOfNestedSection() {
+        WindowedSection section = section(2, 10);
+        Section outer = new Section(new DummyItem());
+        outer.add(new Section(Collections.singletonList(section)));
+        GroupAdapter<GroupieViewHolder> adapter = new GroupAdapter<>();
+        adapter.add(new DummyItem());
+        adapter.add(outer);
+
+        adapter.onBindViewHolder(mock(GroupieViewHolder.class), 9, Collections.emptyList());
+
+        assertTrue(section.isHeld(7));
+        assertFalse(section.isHeld(0));
+    }
+}